@@ -1,5 +1,5 @@
 import { useEffect, useState } from "react";
-import api from "../utils/api";
+import api, { getAllPages } from "../utils/api";
 import useAuthStore from "../store/authStore";
 import { toast } from "react-toastify";
 import TransactionList from "./TransactionList";
@@ -17,8 +17,7 @@ const UserTransactionList = () => {
 
   const fetchUserTransactions = async (userId) => {
     try {
-      const response = await api.get(`/transactions/users/${userId}`);
-      setTransactions(response.data);
+      setTransactions(await getAllPages(`/transactions/users/${userId}`));
     } catch (error) {
       console.error("Error fetching transactions:", error);
     }
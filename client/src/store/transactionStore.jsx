@@ -1,5 +1,5 @@
 import { create } from "zustand";
-import api from "../utils/api";
+import api, { getAllPages } from "../utils/api";
 
 const useTransactionStore = create((set) => ({
     groupTransactions: [],
@@ -10,8 +10,8 @@ const useTransactionStore = create((set) => ({
     fetchGroupTransactions: async (groupId) => {
         if (!groupId) return;
         try {
-            const { data } = await api.get(`/transactions/groups/${groupId}`);
-            set({ groupTransactions: [...data] });
+            const data = await getAllPages(`/transactions/groups/${groupId}`);
+            set({ groupTransactions: data });
         } catch (error) {
             console.error("Error fetching group transactions:", error);
         }
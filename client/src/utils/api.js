@@ -5,4 +5,19 @@ const api = axios.create({
     withCredentials: true
 });
 
-export default api;
\ No newline at end of file
+// Transaction feeds return one page at a time; the next page's cursor comes in the
+// X-Next-Cursor header, and its absence means the feed has ended
+const PAGE_SIZE = 200;
+
+export const getAllPages = async (url) => {
+    const rows = [];
+    let cursor;
+    do {
+        const response = await api.get(url, { params: { limit: PAGE_SIZE, cursor } });
+        rows.push(...response.data);
+        cursor = response.headers["x-next-cursor"];
+    } while (cursor);
+    return rows;
+};
+
+export default api;
@@ -0,0 +1,76 @@
+package com.splitwise.server.config;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.splitwise.server.dto.TransactionDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes a 10k-row transaction list as each negotiated encoding, with and without
+ * gzip, and prints the bytes each produces once per trial.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ResponseEncoding -prof gc"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"json", "smile", "cbor"})
+    private String encoding;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private List<TransactionDTO> transactions;
+    private ObjectWriter writer;
+    private int size;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        writer = switch (encoding) {
+            case "smile" -> BinaryEncodingConfig.smileMapper(builder).writer();
+            case "cbor" -> BinaryEncodingConfig.cborMapper(builder).writer();
+            default -> builder.build().writer();
+        };
+
+        // Shaped like a busy group's history: a few members, many amounts and dates
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long payer = i % 6;
+            long payee = (i + 1 + i % 4) % 6;
+            transactions.add(new TransactionDTO((long) 100_000 + i, payer, "Member " + payer, payee, "Member " + payee,
+                    BigDecimal.valueOf(100 + (i * 7919L) % 90_000, 2), start.plusMinutes(i * 37L),
+                    42L, "Flat 4B", i % 5 == 0, "Expense " + i % 50));
+        }
+
+        size = serialize().length;
+        System.out.printf("%n[encoding] %s%s: %,d bytes for %,d rows%n", encoding, gzip ? "+gzip" : "", size, ROWS);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size > 0 ? size : 1 << 20);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            writer.writeValue(out, transactions);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package com.splitwise.server.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums a batch of transaction amounts the way the ledger services used to (BigDecimal)
+ * and the way they do now (minor units), plus a chain of immutable {@link Money#plus}
+ * calls for comparison. Run with {@code -prof gc} to see the allocation per sum.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private BigDecimal[] decimals;
+    private Money[] amounts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        decimals = new BigDecimal[rows];
+        amounts = new Money[rows];
+        for (int i = 0; i < rows; i++) {
+            // Amounts as they come back from the NUMERIC(38, 2) columns
+            decimals[i] = BigDecimal.valueOf(1 + random.nextInt(500_000), 2);
+            amounts[i] = Money.of(decimals[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalSum() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : decimals) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money minorUnitSum() {
+        long total = 0;
+        for (Money amount : amounts) {
+            total = Math.addExact(total, amount.getMinorUnits());
+        }
+        return Money.ofMinor(total);
+    }
+
+    @Benchmark
+    public Money moneyPlus() {
+        Money total = Money.zero();
+        for (Money amount : amounts) {
+            total = total.plus(amount);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.model.User;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("User " + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+}
@@ -0,0 +1,38 @@
+package com.splitwise.server.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DebtSimplifierBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int members;
+
+    private long[] positions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        positions = new long[members];
+        long sum = 0;
+        for (int i = 0; i < members - 1; i++) {
+            positions[i] = random.nextInt(200_000) - 100_000;
+            sum += positions[i];
+        }
+        positions[members - 1] = -sum;
+    }
+
+    @Benchmark
+    public List<DebtSimplifier.Payment> simplify() {
+        return DebtSimplifier.simplify(positions);
+    }
+}
@@ -0,0 +1,65 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.dto.ExpenseResponseDTO;
+import com.splitwise.server.model.Expense;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseServiceBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int participants;
+
+    private Group group;
+    private User payer;
+    private Set<User> sharedWith;
+    private Expense expense;
+
+    @Setup
+    public void setUp() {
+        group = new Group();
+        group.setId(1L);
+        group.setName("Trip");
+
+        payer = BenchmarkFixtures.user(0);
+        sharedWith = new HashSet<>();
+        for (int i = 1; i <= participants; i++) {
+            sharedWith.add(BenchmarkFixtures.user(i));
+        }
+
+        expense = new Expense();
+        expense.setId(1L);
+        expense.setAmount(Money.of(new BigDecimal("1234.56")));
+        expense.setDescription("Dinner");
+        expense.setDate(LocalDateTime.now());
+        expense.setGroup(group);
+        expense.setPayer(payer);
+        expense.setSharedWith(sharedWith);
+    }
+
+    @Benchmark
+    public List<Transaction> splitTransactions() {
+        return ExpenseService.splitTransactions(group, payer, sharedWith, Money.of(new BigDecimal("1234.56")), "Dinner");
+    }
+
+    @Benchmark
+    public ExpenseResponseDTO mapToResponseDTO() {
+        return ExpenseService.mapToResponseDTO(expense);
+    }
+}
@@ -0,0 +1,57 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.dto.TransactionDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionServiceBenchmark {
+
+    @Param({"5", "200"})
+    private int size;
+
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        Group group = new Group();
+        group.setId(1L);
+        group.setName("Flat");
+
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Transaction tx = new Transaction();
+            tx.setId((long) i);
+            tx.setPayer(BenchmarkFixtures.user(0));
+            tx.setPayee(BenchmarkFixtures.user(i + 1));
+            tx.setAmount(Money.of(new BigDecimal("12.50")));
+            tx.setDate(LocalDateTime.now());
+            tx.setGroup(i % 2 == 0 ? group : null);
+            tx.setDescription("Groceries");
+            tx.setType(i % 2 == 0 ? Transaction.TransactionType.GROUP : Transaction.TransactionType.FRIEND);
+            transactions.add(tx);
+        }
+    }
+
+    @Benchmark
+    public void toDTO(Blackhole blackhole) {
+        for (Transaction tx : transactions) {
+            TransactionDTO dto = TransactionService.toDTO(tx);
+            blackhole.consume(dto);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    private User user;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setName("Alice Example");
+        user.setEmail("alice@example.com");
+        user.setPassword("Sup3r$ecret");
+    }
+
+    @Benchmark
+    public User validateRegistration() {
+        UserService.validateRegistration(user);
+        return user;
+    }
+}
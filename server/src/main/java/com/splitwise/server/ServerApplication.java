@@ -3,11 +3,22 @@ package com.splitwise.server;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.Map;
+
 @SpringBootApplication
 public class ServerApplication {
 
+	/**
+	 * Shared settings tracked with the code. Imported from the default properties, so they
+	 * take precedence over application.properties; environment variables, system properties
+	 * and command-line arguments can still override them.
+	 */
+	static final String SHARED_SETTINGS = "classpath:server-defaults.properties";
+
 	public static void main(String[] args) {
-		SpringApplication.run(ServerApplication.class, args);
+		SpringApplication application = new SpringApplication(ServerApplication.class);
+		application.setDefaultProperties(Map.of("spring.config.import", SHARED_SETTINGS));
+		application.run(args);
 	}
 
 }
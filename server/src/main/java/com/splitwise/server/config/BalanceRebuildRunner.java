@@ -0,0 +1,42 @@
+package com.splitwise.server.config;
+
+import com.splitwise.server.service.GroupBalanceService;
+import com.splitwise.server.service.UserBalanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regenerates the balance ledgers from the transactions table when the server is
+ * started with {@code --rebuild-group-balances} and/or {@code --rebuild-user-balances}.
+ * Used to backfill a ledger for existing data or to repair it after manual edits.
+ */
+@Component
+public class BalanceRebuildRunner implements ApplicationRunner {
+    static final String REBUILD_GROUP_BALANCES = "rebuild-group-balances";
+    static final String REBUILD_USER_BALANCES = "rebuild-user-balances";
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceRebuildRunner.class);
+
+    private final GroupBalanceService groupBalanceService;
+    private final UserBalanceService userBalanceService;
+
+    public BalanceRebuildRunner(GroupBalanceService groupBalanceService, UserBalanceService userBalanceService) {
+        this.groupBalanceService = groupBalanceService;
+        this.userBalanceService = userBalanceService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_GROUP_BALANCES)) {
+            int rows = groupBalanceService.rebuild();
+            log.info("Rebuilt group_balances ledger: {} rows", rows);
+        }
+        if (args.containsOption(REBUILD_USER_BALANCES)) {
+            int rows = userBalanceService.rebuild();
+            log.info("Rebuilt user_balances ledger: {} rows", rows);
+        }
+    }
+}
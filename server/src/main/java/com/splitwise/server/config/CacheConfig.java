@@ -0,0 +1,40 @@
+package com.splitwise.server.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.cache.SpringCacheBasedUserCache;
+
+import java.time.Duration;
+import java.util.Objects;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String PRINCIPALS = "principals";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${splitwise.cache.principals.max-size:10000}") long maxSize,
+            @Value("${splitwise.cache.principals.ttl:5m}") Duration ttl) {
+        // Caches are declared up front so Actuator binds their hit/miss/eviction metrics at startup
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRINCIPALS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+
+    @Bean
+    public UserCache userCache(CacheManager cacheManager) {
+        // DaoAuthenticationProvider consults this before UserService and, when a cached
+        // entry fails the password check, reloads from the database before rejecting
+        return new SpringCacheBasedUserCache(Objects.requireNonNull(cacheManager.getCache(PRINCIPALS)));
+    }
+}
@@ -0,0 +1,33 @@
+package com.splitwise.server.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+@Configuration
+@ConditionalOnProperty("splitwise.db.max-concurrency")
+public class DbConcurrencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<DbConcurrencyLimitFilter> dbConcurrencyLimitFilter(
+            @Value("${splitwise.db.max-concurrency}") int maxConcurrency,
+            @Value("${splitwise.db.acquire-timeout:5s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        Semaphore permits = new Semaphore(maxConcurrency, true);
+        Gauge.builder("db.concurrency.waiting", permits, Semaphore::getQueueLength).register(meterRegistry);
+        Gauge.builder("db.concurrency.available", permits, Semaphore::availablePermits).register(meterRegistry);
+
+        // Registered after the security filter chain so unauthenticated requests never take a permit
+        FilterRegistrationBean<DbConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new DbConcurrencyLimitFilter(permits, acquireTimeout));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
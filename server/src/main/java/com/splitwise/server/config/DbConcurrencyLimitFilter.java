@@ -0,0 +1,102 @@
+package com.splitwise.server.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits at most {@code permits} API requests at a time. Waiting requests park on a fair
+ * semaphore, which is cheap on virtual threads, instead of piling up inside Hikari; those
+ * that cannot get a permit within the timeout are answered with a 503.
+ * Async requests keep their permit until the response completes, so the requests in
+ * {@link #EXEMPT} that go async without using the request's database work are left out.
+ */
+public class DbConcurrencyLimitFilter extends OncePerRequestFilter {
+    /**
+     * Group event streams stay open for a long time without touching the database, and a
+     * login waits on the login executor, whose own queue bounds it, not on a connection.
+     */
+    static final RequestMatcher EXEMPT = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/groups/*/events", "GET"),
+            new AntPathRequestMatcher("/api/auth/login", "POST"));
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public DbConcurrencyLimitFilter(Semaphore permits, Duration acquireTimeout) {
+        this.permits = permits;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return EXEMPT.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server busy, try again shortly\"}");
+            return;
+        }
+
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Async handlers such as streamed exports keep using the database after this
+                // thread returns, so the permit is held until the response completes
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permits.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
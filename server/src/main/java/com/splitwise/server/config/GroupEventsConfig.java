@@ -0,0 +1,40 @@
+package com.splitwise.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class GroupEventsConfig {
+
+    public static final String GROUP_EVENTS_EXECUTOR = "groupEventsExecutor";
+
+    /**
+     * Writes group events to the subscribed streams after the change commits, so the
+     * request that made the change does not wait on its subscribers. When the queue is
+     * full the committing thread does the fan-out itself rather than dropping the event.
+     */
+    @Bean(GROUP_EVENTS_EXECUTOR)
+    public ThreadPoolTaskExecutor groupEventsExecutor(
+            @Value("${splitwise.events.threads:2}") int threads,
+            @Value("${splitwise.events.queue-capacity:10000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("group-events-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        // executor.queued / executor.active / executor.completed, tagged name=group-events
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "group-events", List.of());
+        return executor;
+    }
+}
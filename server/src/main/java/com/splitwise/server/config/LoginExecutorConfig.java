@@ -0,0 +1,40 @@
+package com.splitwise.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class LoginExecutorConfig {
+
+    public static final String LOGIN_EXECUTOR = "loginExecutor";
+
+    /**
+     * Runs password verification for /api/auth/login off the Tomcat request threads.
+     * The queue is bounded and overflow is rejected rather than run by the caller, so
+     * a login storm is turned away with a 503 instead of starving other endpoints.
+     */
+    @Bean(LOGIN_EXECUTOR)
+    public ThreadPoolTaskExecutor loginExecutor(
+            @Value("${splitwise.auth.login.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+            @Value("${splitwise.auth.login.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("login-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        // executor.queued / executor.active / executor.completed, tagged name=login
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "login", List.of());
+        return executor;
+    }
+}
@@ -0,0 +1,21 @@
+package com.splitwise.server.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /** Name of the timer recorded for every public method of the @Timed services. */
+    public static final String SERVICE_TIMER = "splitwise.service";
+
+    // Controller handlers are already timed as http.server.requests (tagged by uri) and
+    // repository calls as spring.data.repository.invocations (tagged by repository and
+    // method); this adds the service layer in between.
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,82 @@
+package com.splitwise.server.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.splitwise.server.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to
+ * everything else. A user whose read-write transaction committed within the last
+ * {@code readYourWrites} keeps reading from the primary, so they never see the replica
+ * lag behind their own change; other users may see it for as long as the replica trails.
+ * <p>
+ * The choice is made when the connection is first used, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: Spring only
+ * marks the transaction read-only after the transaction manager has opened it. The
+ * recent writers are remembered per instance, so a user's reads should reach the
+ * instance that took the write for the window to apply.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private enum Target { PRIMARY, REPLICA }
+
+    private final Cache<Long, Boolean> recentWriters;
+    private final Map<Target, Counter> routed;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites,
+                                    MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+        routed = Map.of(
+                Target.PRIMARY, routedCounter(meterRegistry, "primary"),
+                Target.REPLICA, routedCounter(meterRegistry, "replica"));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        Target target;
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            target = userId != null && recentWriters.getIfPresent(userId) != null ? Target.PRIMARY : Target.REPLICA;
+        } else {
+            target = Target.PRIMARY;
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+        }
+        routed.get(target).increment();
+        return target;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user
+                ? user.getId()
+                : null;
+    }
+
+    private static Counter routedCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.routing.connections")
+                .description("Connections handed out, by the database they were taken from")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
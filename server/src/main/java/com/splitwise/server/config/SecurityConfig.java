@@ -1,18 +1,30 @@
 package com.splitwise.server.config;
 
+import com.splitwise.server.controller.TransactionController;
+import com.splitwise.server.security.AccessTokenService;
+import com.splitwise.server.security.TimedPasswordEncoder;
 import com.splitwise.server.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -24,43 +36,74 @@ import java.util.List;
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider(UserService userService) {
+    public DaoAuthenticationProvider authenticationProvider(UserService userService, UserCache userCache,
+                                                           PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserCache(userCache);
         return authProvider;
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(UserService userService) {
-        return new ProviderManager(authenticationProvider(userService));
+    public AuthenticationManager authenticationManager(DaoAuthenticationProvider authenticationProvider) {
+        return new ProviderManager(authenticationProvider);
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, ObjectProvider<JwtDecoder> jwtDecoder,
+                                                   @Value("${splitwise.metrics.scrape-networks:127.0.0.1/32,::1/128}") List<String> scrapeNetworks) throws Exception {
+        List<IpAddressMatcher> scrapers = scrapeNetworks.stream().map(IpAddressMatcher::new).toList();
+
+        AuthenticationEntryPoint unauthorized = (request, response, authException) -> {
+            response.setContentType("application/json");
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write("{\"message\": \"You must be logged in to access this resource\"}");
+        };
+
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
+                        // Probed by the orchestrator without a login
+                        .requestMatchers(EndpointRequest.to("health")).permitAll()
+                        // Scraped without a login, but only from the management network
+                        .requestMatchers(EndpointRequest.to("prometheus")).access((authentication, context) ->
+                                new AuthorizationDecision(scrapers.stream().anyMatch(network -> network.matches(context.getRequest()))))
                         .anyRequest().authenticated()
                 )
-                .sessionManagement(session -> session
-                        .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
-                )
                 .exceptionHandling(ex -> ex
-                        .authenticationEntryPoint((request, response, authException) -> {
-                            response.setContentType("application/json");
-                            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                            response.getWriter().write("{\"message\": \"You must be logged in to access this resource\"}");
-                        })
+                        .authenticationEntryPoint(unauthorized)
                 );
 
+        // Token mode (splitwise.auth.mode=token): requests carry a signed bearer token
+        // that is verified in memory; no session is created or read
+        JwtDecoder decoder = jwtDecoder.getIfAvailable();
+        if (decoder != null) {
+            http
+                    .sessionManagement(session -> session
+                            .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                    )
+                    .oauth2ResourceServer(oauth2 -> oauth2
+                            .authenticationEntryPoint(unauthorized)
+                            .jwt(jwt -> jwt
+                                    .decoder(decoder)
+                                    .jwtAuthenticationConverter(AccessTokenService::toAuthentication)
+                            )
+                    );
+        } else {
+            http
+                    .sessionManagement(session -> session
+                            .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
+                    );
+        }
+
         return http.build();
     }
 
@@ -72,6 +115,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS")); // <-- ADDED OPTIONS METHOD
         configuration.setAllowedHeaders(List.of("*")); // Allow all headers
         configuration.setAllowCredentials(true); // Allow sending cookies/auth headers
+        configuration.setExposedHeaders(List.of(TransactionController.NEXT_CURSOR_HEADER));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration); // Apply to all paths
@@ -0,0 +1,42 @@
+package com.splitwise.server.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.splitwise.server.security.AccessTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "splitwise.auth.mode", havingValue = "token")
+public class TokenAuthConfig {
+
+    private final SecretKey secretKey;
+
+    public TokenAuthConfig(@Value("${splitwise.auth.token.secret}") String secret) {
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < 32) {
+            throw new IllegalStateException("splitwise.auth.token.secret must be at least 32 bytes for HS256");
+        }
+        this.secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder() {
+        return NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+    }
+
+    @Bean
+    public AccessTokenService accessTokenService(@Value("${splitwise.auth.token.ttl:15m}") Duration ttl) {
+        return new AccessTokenService(new NimbusJwtEncoder(new ImmutableSecret<>(secretKey)), ttl);
+    }
+}
@@ -0,0 +1,52 @@
+package com.splitwise.server.config;
+
+import com.splitwise.server.service.UserBalanceService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Periodically recomputes every user's totals from the transactions table and
+ * reports users whose user_balances row disagrees. Reports only; repair with
+ * {@code --rebuild-user-balances}. Set {@code splitwise.balances.drift-check.cron=-}
+ * to turn it off.
+ */
+@Component
+@EnableScheduling
+public class UserBalanceDriftCheck {
+    private static final Logger log = LoggerFactory.getLogger(UserBalanceDriftCheck.class);
+    private static final int LOGGED_ROWS = 20;
+
+    private final UserBalanceService userBalanceService;
+    private final AtomicInteger driftingUsers = new AtomicInteger();
+
+    public UserBalanceDriftCheck(UserBalanceService userBalanceService, MeterRegistry meterRegistry) {
+        this.userBalanceService = userBalanceService;
+        Gauge.builder("balances.user.drift", driftingUsers, AtomicInteger::get)
+                .description("Users whose running totals disagreed with their transactions at the last check")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${splitwise.balances.drift-check.cron:0 30 3 * * *}")
+    public void check() {
+        List<Object[]> drift = userBalanceService.findDrift();
+        driftingUsers.set(drift.size());
+        if (drift.isEmpty()) {
+            log.info("user_balances drift check: no drift");
+            return;
+        }
+
+        log.warn("user_balances drift check: {} users drifted; run with --{} to repair",
+                drift.size(), BalanceRebuildRunner.REBUILD_USER_BALANCES);
+        for (Object[] row : drift.subList(0, Math.min(LOGGED_ROWS, drift.size()))) {
+            log.warn("  user {}: owed off by {}, lent off by {}", row[0], row[1], row[2]);
+        }
+    }
+}
@@ -1,28 +1,39 @@
 package com.splitwise.server.controller;
 
 import com.splitwise.server.model.User;
+import com.splitwise.server.security.AccessTokenService;
+import com.splitwise.server.security.AuthenticatedUser;
+import com.splitwise.server.service.LoginService;
 import com.splitwise.server.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
-    private final AuthenticationManager authManager;
+    private final LoginService loginService;
     private final UserService userService;
+    private final AccessTokenService accessTokenService;
 
-    public AuthController(AuthenticationManager authManager, UserService userService) {
-        this.authManager = authManager;
+    public AuthController(LoginService loginService, UserService userService,
+                          ObjectProvider<AccessTokenService> accessTokenService) {
+        this.loginService = loginService;
         this.userService = userService;
+        // Only present in token mode; null means session-based login
+        this.accessTokenService = accessTokenService.getIfAvailable();
     }
 
     @PostMapping("/register")
@@ -37,26 +48,43 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest, HttpSession session) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> loginRequest) {
         String email = loginRequest.get("email");
         String password = loginRequest.get("password");
 
         if (email == null || password == null) {
-            return ResponseEntity.badRequest().body(Map.of("message", "Missing email or password"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("message", "Missing email or password")));
         }
 
+        CompletableFuture<Authentication> authentication;
         try {
-            Authentication auth = authManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(email, password)
-            );
+            authentication = loginService.authenticate(email, password);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("message", "Too many login attempts, try again shortly")));
+        }
 
-            SecurityContextHolder.getContext().setAuthentication(auth);
-            session.setAttribute("SPRING_SECURITY_CONTEXT", SecurityContextHolder.getContext());
+        return authentication
+                .<ResponseEntity<?>>thenApply(this::loginSucceeded)
+                .exceptionally(e -> ResponseEntity.status(401).body(Map.of("message", "Bad credentials")));
+    }
 
-            return ResponseEntity.ok(Map.of("message", "Login Successful", "user", auth.getName()));
-        } catch (Exception e) {
-            return ResponseEntity.status(401).body(Map.of("message", "Bad credentials"));
+    private ResponseEntity<?> loginSucceeded(Authentication auth) {
+        if (accessTokenService != null) {
+            String token = accessTokenService.issue((AuthenticatedUser) auth.getPrincipal());
+            return ResponseEntity.ok(Map.of(
+                    "message", "Login Successful",
+                    "user", auth.getName(),
+                    "accessToken", token,
+                    "tokenType", "Bearer",
+                    "expiresIn", accessTokenService.getTtl().toSeconds()
+            ));
         }
+
+        // Runs on a login executor thread; the session is written by SessionLoginAdvice
+        return ResponseEntity.ok(new SessionLoginAdvice.SessionLogin(auth));
     }
 
 
@@ -69,7 +97,7 @@ public class AuthController {
         }
 
         Object principal = authentication.getPrincipal();
-        if (principal instanceof User user) {
+        if (principal instanceof AuthenticatedUser user) {
             return ResponseEntity.ok(Map.of(
                     "message", "Authenticated",
                     "id", user.getId(),
@@ -81,8 +109,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpSession session) {
-        session.invalidate();
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok(Collections.singletonMap("message", "Logged Out Successfully"));
     }
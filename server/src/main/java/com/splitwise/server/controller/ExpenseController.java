@@ -1,21 +1,28 @@
 package com.splitwise.server.controller;
 
+import com.splitwise.server.dto.ExpenseImportResult;
 import com.splitwise.server.dto.ExpenseRequestDTO;
 import com.splitwise.server.dto.ExpenseResponseDTO;
+import com.splitwise.server.service.ExpenseImportService;
 import com.splitwise.server.service.ExpenseService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/expenses")
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
 
-    public ExpenseController(ExpenseService expenseService) {
+    public ExpenseController(ExpenseService expenseService, ExpenseImportService expenseImportService) {
         this.expenseService = expenseService;
+        this.expenseImportService = expenseImportService;
     }
 
     @GetMapping
@@ -33,4 +40,20 @@ public class ExpenseController {
         ExpenseResponseDTO createdExpense = expenseService.addExpense(expenseRequestDTO);
         return ResponseEntity.ok(createdExpense);
     }
+
+    // The raw request body is streamed rather than bound, so uploads of any size are never held in memory
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ExpenseImportResult> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(expenseImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ExpenseImportResult> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(expenseImportService.importNdjson(body));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
 }
@@ -3,13 +3,13 @@ package com.splitwise.server.controller;
 import com.splitwise.server.dto.FriendExpenseRequest;
 import com.splitwise.server.dto.FriendExpenseResponse;
 import com.splitwise.server.model.User;
+import com.splitwise.server.security.AuthenticatedUser;
 import com.splitwise.server.service.FriendshipService;
 import com.splitwise.server.service.TransactionService;
 import com.splitwise.server.service.UserService;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpSession;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
@@ -28,8 +28,8 @@ public class FriendshipController {
     }
 
     @PostMapping("/add")
-    public ResponseEntity<?> addFriend(@RequestBody Map<String, Long> payload, HttpSession session) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public ResponseEntity<?> addFriend(@RequestBody Map<String, Long> payload) {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         Long friendId = payload.get("friendId");
 
@@ -46,8 +46,8 @@ public class FriendshipController {
     }
 
     @GetMapping()
-    public ResponseEntity<?> getFriends(HttpSession session) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public ResponseEntity<?> getFriends() {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
@@ -63,10 +63,9 @@ public class FriendshipController {
     @PostMapping("/{friendId}/expenses")
     public ResponseEntity<?> addFriendExpense(
             @PathVariable Long friendId,
-            @RequestBody FriendExpenseRequest request,
-            HttpSession session) {
+            @RequestBody FriendExpenseRequest request) {
 
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
@@ -82,8 +81,8 @@ public class FriendshipController {
 
 
     @GetMapping("/{friendId}/transactions")
-    public ResponseEntity<?> getFriendExpenses(@PathVariable Long friendId, HttpSession session) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public ResponseEntity<?> getFriendExpenses(@PathVariable Long friendId) {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
@@ -99,7 +98,7 @@ public class FriendshipController {
 
     @DeleteMapping("/{friendId}")
     public ResponseEntity<?> removeFriend(@PathVariable Long friendId) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
@@ -114,8 +113,8 @@ public class FriendshipController {
     }
 
     @GetMapping("/potential")
-    public ResponseEntity<List<User>> getPotentialFriends(HttpSession session) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    public ResponseEntity<List<User>> getPotentialFriends() {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         List<User> potentialFriends = friendshipService.getPotentialFriends(user.getId());
         return ResponseEntity.ok(potentialFriends);
     }
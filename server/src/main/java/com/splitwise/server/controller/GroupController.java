@@ -5,17 +5,25 @@ import com.splitwise.server.dto.BasicUserDTO;
 import com.splitwise.server.dto.GroupDTO;
 import com.splitwise.server.model.Group;
 import com.splitwise.server.model.User;
+import com.splitwise.server.security.AuthenticatedUser;
+import com.splitwise.server.service.GroupEventService;
 import com.splitwise.server.service.GroupService;
+import com.splitwise.server.service.GroupVersionService;
+import com.splitwise.server.service.SettlePlanService;
 import com.splitwise.server.service.TransactionService;
 import com.splitwise.server.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +41,15 @@ public class GroupController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private SettlePlanService settlePlanService;
+
+    @Autowired
+    private GroupEventService groupEventService;
+
+    @Autowired
+    private GroupVersionService groupVersionService;
+
     @GetMapping
     public ResponseEntity<List<GroupDTO>> getUserGroups() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -41,16 +58,55 @@ public class GroupController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Collections.emptyList());
         }
 
-        User user = (User) authentication.getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         List<GroupDTO> groups = groupService.getUserGroups(user.getId());
 
         return ResponseEntity.ok(groups);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getGroupById(@PathVariable Long id) {
-        GroupDTO group = groupService.getGroupById(id);
-        return ResponseEntity.ok(group);
+    public ResponseEntity<?> getGroupById(@PathVariable Long id, WebRequest request) {
+        // A missing group has no version and fails in getGroupById as before
+        GroupVersionService.Conditional<GroupDTO> group =
+                groupVersionService.readIfModified(id, request::checkNotModified, () -> groupService.getGroupById(id));
+        if (group.notModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(group.eTag())
+                    .cacheControl(GroupVersionService.REVALIDATE).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(group.eTag())
+                .cacheControl(GroupVersionService.REVALIDATE).varyBy(HttpHeaders.ACCEPT).body(group.body());
+    }
+
+    /**
+     * Server-sent events for the group: a "group-changed" event carrying the group id and
+     * the kind of change is sent after each committed change to its transactions or balances.
+     */
+    @GetMapping("/{id}/events")
+    public ResponseEntity<SseEmitter> subscribeToGroupEvents(@PathVariable Long id) throws IOException {
+        try {
+            return ResponseEntity.ok(groupEventService.subscribe(id));
+        } catch (IllegalArgumentException e) {
+            // No body: an EventSource cannot read one, and the stream type must be declared
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @GetMapping("/{id}/settle-plan")
+    public ResponseEntity<?> getSettlePlan(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(settlePlanService.getSettlePlan(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/settle-plan/apply")
+    public ResponseEntity<?> applySettlePlan(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(settlePlanService.applySettlePlan(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Collections.singletonMap("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}/available-users")
@@ -112,7 +168,7 @@ public class GroupController {
 
     @GetMapping("/potential")
     public ResponseEntity<?> getJoinableGroups() {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
         }
@@ -126,7 +182,7 @@ public class GroupController {
 
     @PostMapping("/{groupId}/join")
     public ResponseEntity<?> joinGroup(@PathVariable Long groupId) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
@@ -142,7 +198,7 @@ public class GroupController {
 
     @DeleteMapping("/{groupId}/leave")
     public ResponseEntity<?> leaveGroup(@PathVariable Long groupId) {
-        User user = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("message", "User not authenticated"));
         }
@@ -0,0 +1,51 @@
+package com.splitwise.server.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+/**
+ * Finishes a session login. The credentials are checked on the login executor, which must
+ * not touch the request or its session while the container may still be using them, so
+ * the login completes with a {@link SessionLogin} and the context is stored here, on the
+ * container thread that writes the response in the async dispatch.
+ */
+@ControllerAdvice(assignableTypes = AuthController.class)
+class SessionLoginAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof SessionLogin login) || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(login.authentication());
+        httpRequest.getSession().setAttribute("SPRING_SECURITY_CONTEXT", context);
+
+        return Map.of("message", "Login Successful", "user", login.authentication().getName());
+    }
+
+    /** A successful session login whose context has yet to be stored in the session. */
+    record SessionLogin(Authentication authentication) {
+    }
+}
@@ -1,12 +1,24 @@
 package com.splitwise.server.controller;
 
+import com.splitwise.server.dto.BulkSettleRequest;
+import com.splitwise.server.dto.BulkSettleResponse;
 import com.splitwise.server.dto.OweDetailsDTO;
 import com.splitwise.server.dto.TransactionDTO;
+import com.splitwise.server.dto.TransactionPageDTO;
 import com.splitwise.server.dto.TransactionUpdateDTO;
 import com.splitwise.server.dto.UserSummaryDTO;
+import com.splitwise.server.security.AuthenticatedUser;
+import com.splitwise.server.service.GroupVersionService;
+import com.splitwise.server.service.TransactionExportService;
 import com.splitwise.server.service.TransactionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -14,22 +26,75 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final GroupVersionService groupVersionService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionExportService transactionExportService,
+                                 GroupVersionService groupVersionService) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.groupVersionService = groupVersionService;
     }
 
     @GetMapping("/users/{userId}")
-    public ResponseEntity<List<TransactionDTO>> getUserTransactions(@PathVariable Long userId) {
-        return ResponseEntity.ok(transactionService.getUserTransactions(userId));
+    public ResponseEntity<List<TransactionDTO>> getUserTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit) {
+        return pageResponse(ResponseEntity.ok(), transactionService.getUserTransactions(userId, cursor, limit));
+    }
+
+    @GetMapping("/users/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportUserTransactions(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "csv") String format) {
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.from(format);
+        transactionExportService.requireUser(userId);
+
+        // Written on the async request thread, so the export runs in its own read-only transaction
+        StreamingResponseBody body = out -> transactionExportService.exportUserTransactions(userId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + userId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/groups/{groupId}")
-    public ResponseEntity<List<TransactionDTO>> getGroupTransactions(@PathVariable Long groupId) {
-        System.out.println("Fetching transactions for group ID: " + groupId);
-        List<TransactionDTO> transactions = transactionService.getGroupTransactions(groupId);
-        return ResponseEntity.ok(transactions);
+    public ResponseEntity<List<TransactionDTO>> getGroupTransactions(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int limit,
+            WebRequest request) {
+        // The version covers every page: any write to the group may shift page boundaries
+        GroupVersionService.Conditional<TransactionPageDTO> page = groupVersionService.readIfModified(
+                groupId, request::checkNotModified, () -> transactionService.getGroupTransactions(groupId, cursor, limit));
+        if (page.notModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(page.eTag())
+                    .cacheControl(GroupVersionService.REVALIDATE).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.eTag() != null) {
+            response.eTag(page.eTag()).cacheControl(GroupVersionService.REVALIDATE).varyBy(HttpHeaders.ACCEPT);
+        }
+        return pageResponse(response, page.body());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    private static ResponseEntity<List<TransactionDTO>> pageResponse(ResponseEntity.BodyBuilder response,
+                                                                     TransactionPageDTO page) {
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getTransactions());
     }
 
     @PutMapping("/{transactionId}/settle")
@@ -38,6 +103,12 @@ public class TransactionController {
         return ResponseEntity.ok("Transaction settled successfully");
     }
 
+    @PostMapping("/settle")
+    public ResponseEntity<BulkSettleResponse> settleTransactions(@RequestBody BulkSettleRequest request) {
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return ResponseEntity.ok(transactionService.settleTransactions(request, user.getId()));
+    }
+
     @GetMapping("/owe-details")
     public ResponseEntity<List<OweDetailsDTO>> getOweDetails(
             @RequestParam Long userId,
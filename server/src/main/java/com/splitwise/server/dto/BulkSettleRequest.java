@@ -0,0 +1,20 @@
+package com.splitwise.server.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Selects the transactions a bulk settle applies to: either explicit {@code ids},
+ * everything between {@code userId} and {@code friendId}, or everything involving
+ * {@code userId} in {@code groupId}. Exactly one of the three scopes may be given.
+ */
+@Getter
+@Setter
+public class BulkSettleRequest {
+    private List<Long> ids;
+    private Long userId;
+    private Long friendId;
+    private Long groupId;
+}
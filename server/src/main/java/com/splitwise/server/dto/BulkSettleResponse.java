@@ -0,0 +1,19 @@
+package com.splitwise.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSettleResponse {
+    private int settled;
+    private BigDecimal totalOwes;
+    private BigDecimal totalOwedTo;
+    private BigDecimal netBalance;
+}
@@ -0,0 +1,30 @@
+package com.splitwise.server.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One expense in a bulk import. Users are referenced by email so exports from other
+ * tools can be loaded as-is; {@code date} is an ISO date or date-time and defaults to
+ * the import time. Rows marked {@code settled} are stored without touching balances.
+ */
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ExpenseImportRow {
+    private Long groupId;
+    private String payer;
+    private BigDecimal amount;
+    private String description;
+    private String date;
+    private List<String> sharedWith;
+    private Boolean settled;
+
+    @JsonIgnore
+    private long line;
+}
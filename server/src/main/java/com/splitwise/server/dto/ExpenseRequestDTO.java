@@ -5,17 +5,28 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.util.Map;
 import java.util.Set;
 
 @Getter
 @Setter
 @NoArgsConstructor
 public class ExpenseRequestDTO {
+
+    public enum SplitType { EQUAL, EXACT, PERCENTAGE, SHARES }
+
     private BigDecimal amount;
     private Long groupId;
     private Long payerId;
     private Set<Long> sharedWithUserIds;
     private String description;
+    /** Defaults to an equal split between the payer and {@code sharedWithUserIds}. */
+    private SplitType splitType;
+    /**
+     * For any other split type, each participant's amount, percentage or share weight by
+     * user id; the payer may be listed to take a share. {@code sharedWithUserIds} is ignored.
+     */
+    private Map<Long, BigDecimal> splits;
 
     public ExpenseRequestDTO(BigDecimal amount, Long groupId, Long payerId, Set<Long> sharedWithUserIds, String description) {
         this.amount = amount;
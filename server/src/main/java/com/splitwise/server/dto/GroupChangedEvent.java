@@ -0,0 +1,32 @@
+package com.splitwise.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Published inside the transaction that changes a group's transactions, balances or
+ * members. It bumps the group's version before the commit and is pushed to the group's
+ * event stream after it. It only says what changed, so
+ * clients refetch the group or its transactions instead of polling for them.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupChangedEvent {
+
+    public enum Change {
+        EXPENSE_ADDED,
+        EXPENSES_IMPORTED,
+        TRANSACTION_SETTLED,
+        TRANSACTION_UPDATED,
+        TRANSACTION_REMOVED,
+        SETTLE_PLAN_APPLIED,
+        MEMBERS_CHANGED
+    }
+
+    private Long groupId;
+    private Change change;
+}
@@ -0,0 +1,18 @@
+package com.splitwise.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class SettlementDTO {
+    private Long fromUserId;
+    private String fromUserName;
+    private Long toUserId;
+    private String toUserName;
+    private BigDecimal amount;
+}
@@ -0,0 +1,15 @@
+package com.splitwise.server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TransactionPageDTO {
+    private List<TransactionDTO> transactions;
+    private String nextCursor;
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -13,7 +14,6 @@ import java.util.Set;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Group {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +30,19 @@ public class Group {
     @JsonIgnore
     private Set<Expense> expenses;
 
+    // Only ever changed by GroupRepo.incrementVersion, so saving a loaded group never writes back a stale value
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private long version;
+
+    public Group(Long id, String name, Set<UserGroup> userGroups, Set<Expense> expenses) {
+        this.id = id;
+        this.name = name;
+        this.userGroups = userGroups;
+        this.expenses = expenses;
+    }
+
     @Override
     public String toString() {
         return "Group{id=" + id + ", name='" + name + "'}";
@@ -0,0 +1,50 @@
+package com.splitwise.server.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "group_balances", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"group_id", "user_id"})})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_balances_seq")
+    @SequenceGenerator(name = "group_balances_seq", sequenceName = "group_balances_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Sum of unsettled group transactions where this user is the payee
+    @Column(name = "amount_owed", nullable = false)
+    private Money amountOwed = Money.zero();
+
+    // Sum of unsettled group transactions where this user is the payer
+    @Column(name = "amount_lent", nullable = false)
+    private Money amountLent = Money.zero();
+
+    public GroupBalance(Group group, User user, Money amountOwed, Money amountLent) {
+        this.group = group;
+        this.user = user;
+        this.amountOwed = amountOwed;
+        this.amountLent = amountLent;
+    }
+
+    public Money getNetAmount() {
+        return amountLent.minus(amountOwed);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupBalance{id=" + id + ", amountOwed=" + amountOwed + ", amountLent=" + amountLent + "}";
+    }
+}
@@ -3,11 +3,13 @@ package com.splitwise.server.model;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_group_date_id", columnList = "group_id, date DESC, id DESC"),
+        @Index(name = "idx_transactions_payer_date_id", columnList = "payer_id, date DESC, id DESC"),
+        @Index(name = "idx_transactions_payee_date_id", columnList = "payee_id, date DESC, id DESC")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +17,8 @@ import java.time.LocalDateTime;
 @ToString
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -27,7 +30,7 @@ public class Transaction {
     private User payee;
 
     @Column(nullable = false)
-    private BigDecimal amount;
+    private Money amount;
 
     @Column(nullable = false)
     private LocalDateTime date = LocalDateTime.now();
@@ -5,12 +5,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 
 @Entity
@@ -19,7 +14,7 @@ import java.util.Set;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class User implements UserDetails{
+public class User {
     @Id
     @GeneratedValue(strategy= GenerationType.IDENTITY)
     private Long id;
@@ -36,16 +31,11 @@ public class User implements UserDetails{
 
     private String role = "ROLE_USER";
 
-    @Override
-    public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(role));
-    }
-
-    @OneToMany(fetch = FetchType.EAGER,mappedBy = "user", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     @JsonManagedReference("user-usergroup")
     private Set<UserGroup> userGroups;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "payer", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "payer", cascade = CascadeType.ALL)
     @JsonIgnore
     private Set<Expense> expensesPaid;
 
@@ -57,31 +47,6 @@ public class User implements UserDetails{
     @JsonIgnore
     private Set<Friendship> friendOf;
 
-    @Override
-    public String getUsername() {
-        return email;
-    }
-
-    @Override
-    public boolean isAccountNonExpired() {
-        return true;
-    }
-
-    @Override
-    public boolean isAccountNonLocked() {
-        return true;
-    }
-
-    @Override
-    public boolean isCredentialsNonExpired() {
-        return true;
-    }
-
-    @Override
-    public boolean isEnabled() {
-        return true;
-    }
-
     @Override
     public String toString() {
         return "User{id=" + id + ", email='" + email + "', name='" + name + "'}";
@@ -0,0 +1,55 @@
+package com.splitwise.server.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Running totals over a user's unsettled transactions, group and friend alike,
+ * so the dashboard summary is a primary-key read.
+ */
+@Entity
+@Table(name = "user_balances")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserBalance implements Persistable<Long> {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Sum of unsettled transactions where this user is the payee
+    @Column(name = "amount_owed", nullable = false)
+    private Money amountOwed = Money.zero();
+
+    // Sum of unsettled transactions where this user is the payer
+    @Column(name = "amount_lent", nullable = false)
+    private Money amountLent = Money.zero();
+
+    // The id is assigned, so tell Spring Data which rows are new instead of letting
+    // save() issue a SELECT per row to find out
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    public UserBalance(Long userId) {
+        this.userId = userId;
+    }
+
+    @Override
+    public Long getId() {
+        return userId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "user_group")
+@Table(name = "user_group", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "group_id"})})
 @Getter
 @Setter
 @NoArgsConstructor
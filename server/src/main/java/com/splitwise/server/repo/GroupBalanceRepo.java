@@ -0,0 +1,54 @@
+package com.splitwise.server.repo;
+
+import com.splitwise.server.model.GroupBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GroupBalanceRepo extends JpaRepository<GroupBalance, Long> {
+    @Query("""
+    SELECT u.id, u.name, COALESCE(CAST(b.amountOwed AS BigDecimal), 0)
+    FROM UserGroup ug
+    JOIN ug.user u
+    LEFT JOIN GroupBalance b ON b.group.id = ug.group.id AND b.user.id = u.id
+    WHERE ug.group.id = :groupId
+""")
+    List<Object[]> getTotalOwedPerUser(@Param("groupId") Long groupId);
+
+    @Query("""
+    SELECT b.user.id, b.user.name, b.amountLent, b.amountOwed
+    FROM GroupBalance b
+    WHERE b.group.id = :groupId AND b.amountLent <> b.amountOwed
+""")
+    List<Object[]> getNetPositions(@Param("groupId") Long groupId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM GroupBalance b WHERE b.group.id = :groupId")
+    List<GroupBalance> lockByGroupId(@Param("groupId") Long groupId);
+
+    // Ordered by user so concurrent writers always lock rows in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM GroupBalance b WHERE b.group.id = :groupId AND b.user.id IN :userIds ORDER BY b.user.id")
+    List<GroupBalance> lockByGroupIdAndUserIds(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = """
+    INSERT INTO group_balances (id, group_id, user_id, amount_owed, amount_lent)
+    SELECT nextval('group_balances_seq'), x.group_id, x.user_id, SUM(x.owed), SUM(x.lent)
+    FROM (
+        SELECT t.group_id, t.payee_id AS user_id, t.amount AS owed, 0 AS lent
+        FROM transactions t WHERE t.group_id IS NOT NULL AND t.settled = false
+        UNION ALL
+        SELECT t.group_id, t.payer_id AS user_id, 0 AS owed, t.amount AS lent
+        FROM transactions t WHERE t.group_id IS NOT NULL AND t.settled = false
+    ) x
+    GROUP BY x.group_id, x.user_id
+""", nativeQuery = true)
+    int rebuildFromTransactions();
+}
@@ -2,10 +2,13 @@ package com.splitwise.server.repo;
 
 import com.splitwise.server.model.Group;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface GroupRepo extends JpaRepository<Group, Long> {
     boolean existsByName(String name);
@@ -14,4 +17,18 @@ public interface GroupRepo extends JpaRepository<Group, Long> {
     @Query("SELECT g FROM Group g WHERE g.id NOT IN (" +
             "SELECT ug.group.id FROM UserGroup ug WHERE ug.user.id = :userId)")
     List<Group> findGroupsUserNotIn(@Param("userId") Long userId);
+
+    @Query("SELECT g.id FROM Group g WHERE g.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT g.version FROM Group g WHERE g.id = :groupId")
+    Optional<Long> findVersionById(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("UPDATE Group g SET g.version = g.version + 1 WHERE g.id = :groupId")
+    int incrementVersion(@Param("groupId") Long groupId);
+
+    @Modifying
+    @Query("UPDATE Group g SET g.version = g.version + 1")
+    int incrementAllVersions();
 }
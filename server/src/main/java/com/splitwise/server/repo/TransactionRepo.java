@@ -1,19 +1,30 @@
 package com.splitwise.server.repo;
 
+import com.splitwise.server.dto.FriendExpenseResponse;
 import com.splitwise.server.dto.TransactionDTO;
 import com.splitwise.server.model.Transaction;
 import com.splitwise.server.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import java.awt.print.Pageable;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepo extends JpaRepository<Transaction, Long> {
     @Query("""
-    SELECT u.id, u.name, COALESCE(SUM(t.amount), 0)\s
+    SELECT u.id, u.name, COALESCE(SUM(CAST(t.amount AS BigDecimal)), 0)\s
     FROM User u
     LEFT JOIN Transaction t ON u.id = t.payee.id AND t.group.id = :groupId AND t.settled = false
     WHERE u.id IN (
@@ -24,7 +35,7 @@ public interface TransactionRepo extends JpaRepository<Transaction, Long> {
     List<Object[]> getTotalOwedPerUser(@Param("groupId") Long groupId);
 
     @Query("""
-        SELECT SUM(t.amount), t.payer.id, u.name
+        SELECT SUM(CAST(t.amount AS BigDecimal)), t.payer.id, u.name
         FROM Transaction t
         JOIN User u ON t.payer.id = u.id
         WHERE t.payee.id = :userId AND t.group.id = :groupId AND t.settled = false
@@ -32,22 +43,150 @@ public interface TransactionRepo extends JpaRepository<Transaction, Long> {
     """)
     List<Object[]> getOweDetails(@Param("userId") Long userId, @Param("groupId") Long groupId);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.settled = true WHERE t.group.id = :groupId AND t.settled = false")
+    int settleAllInGroup(@Param("groupId") Long groupId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.settled = true WHERE t.id IN :ids AND t.settled = false")
+    int settleByIds(@Param("ids") Collection<Long> ids);
+
+    // The lock* reads take row locks in id order, so a bulk settle and a single
+    // settle touching the same rows queue behind each other instead of deadlocking
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id IN :ids AND t.settled = false ORDER BY t.id")
+    List<Transaction> lockUnsettledByIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT t FROM Transaction t
+        WHERE t.type = com.splitwise.server.model.Transaction.TransactionType.FRIEND
+        AND t.settled = false
+        AND ((t.payer.id = :userId AND t.payee.id = :friendId) OR (t.payer.id = :friendId AND t.payee.id = :userId))
+        ORDER BY t.id
+    """)
+    List<Transaction> lockUnsettledBetweenFriends(@Param("userId") Long userId, @Param("friendId") Long friendId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT t FROM Transaction t
+        WHERE t.group.id = :groupId AND t.settled = false
+        AND (t.payer.id = :userId OR t.payee.id = :userId)
+        ORDER BY t.id
+    """)
+    List<Transaction> lockUnsettledInGroupForUser(@Param("userId") Long userId, @Param("groupId") Long groupId);
+
     @Query("SELECT t FROM Transaction t WHERE t.group.id = :groupId")
     List<Transaction> findByGroupId(@Param("groupId") Long groupId);
 
     @Query("SELECT t FROM Transaction t WHERE (t.payee.id = :userId OR t.payer.id = :userId)")
     List<Transaction> findByUserId(@Param("userId") Long userId);
 
+    // Keyset pages over (date, id), each served by the matching composite index on transactions
+    @Query("""
+        SELECT new com.splitwise.server.dto.TransactionDTO(
+            t.id, payer.id, payer.name, payee.id, payee.name,
+            CAST(t.amount AS BigDecimal), t.date, g.id, g.name, t.settled, t.description)
+        FROM Transaction t
+        JOIN t.payer payer
+        JOIN t.payee payee
+        JOIN t.group g
+        WHERE g.id = :groupId
+        AND (t.date < :date OR (t.date = :date AND t.id < :id))
+        ORDER BY t.date DESC, t.id DESC
+    """)
+    List<TransactionDTO> findGroupPage(@Param("groupId") Long groupId, @Param("date") LocalDateTime date,
+                                       @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        SELECT new com.splitwise.server.dto.TransactionDTO(
+            t.id, payer.id, payer.name, payee.id, payee.name,
+            CAST(t.amount AS BigDecimal), t.date, g.id, g.name, t.settled, t.description)
+        FROM Transaction t
+        JOIN t.payer payer
+        JOIN t.payee payee
+        LEFT JOIN t.group g
+        WHERE payer.id = :userId
+        AND (t.date < :date OR (t.date = :date AND t.id < :id))
+        ORDER BY t.date DESC, t.id DESC
+    """)
+    List<TransactionDTO> findPaidByUserPage(@Param("userId") Long userId, @Param("date") LocalDateTime date,
+                                            @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        SELECT new com.splitwise.server.dto.TransactionDTO(
+            t.id, payer.id, payer.name, payee.id, payee.name,
+            CAST(t.amount AS BigDecimal), t.date, g.id, g.name, t.settled, t.description)
+        FROM Transaction t
+        JOIN t.payer payer
+        JOIN t.payee payee
+        LEFT JOIN t.group g
+        WHERE payee.id = :userId
+        AND (t.date < :date OR (t.date = :date AND t.id < :id))
+        ORDER BY t.date DESC, t.id DESC
+    """)
+    List<TransactionDTO> findOwedByUserPage(@Param("userId") Long userId, @Param("date") LocalDateTime date,
+                                            @Param("id") Long id, Pageable pageable);
+
+    int EXPORT_FETCH_SIZE = 1000;
+
+    // Full-history cursors for exports, newest first along the same indexes as the pages
+    // above. Rows arrive EXPORT_FETCH_SIZE at a time while the caller streams them out;
+    // PostgreSQL only honours the fetch size inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("""
+        SELECT new com.splitwise.server.dto.TransactionDTO(
+            t.id, payer.id, payer.name, payee.id, payee.name,
+            CAST(t.amount AS BigDecimal), t.date, g.id, g.name, t.settled, t.description)
+        FROM Transaction t
+        JOIN t.payer payer
+        JOIN t.payee payee
+        LEFT JOIN t.group g
+        WHERE payer.id = :userId
+        ORDER BY t.date DESC, t.id DESC
+    """)
+    Stream<TransactionDTO> streamPaidByUser(@Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("""
+        SELECT new com.splitwise.server.dto.TransactionDTO(
+            t.id, payer.id, payer.name, payee.id, payee.name,
+            CAST(t.amount AS BigDecimal), t.date, g.id, g.name, t.settled, t.description)
+        FROM Transaction t
+        JOIN t.payer payer
+        JOIN t.payee payee
+        LEFT JOIN t.group g
+        WHERE payee.id = :userId
+        ORDER BY t.date DESC, t.id DESC
+    """)
+    Stream<TransactionDTO> streamOwedByUser(@Param("userId") Long userId);
+
     public List<Transaction> findByPayerAndPayee(User payer, User payee);
 
     @Query("SELECT t FROM Transaction t WHERE t.type = 'FRIEND' AND " +
             "((t.payer = :user AND t.payee = :friend) OR (t.payer = :friend AND t.payee = :user))")
     List<Transaction> findByUsersInFriendContext(@Param("user") User user, @Param("friend") User friend);
 
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.payer.id = :userId AND t.settled = false")
+    @Query("""
+        SELECT new com.splitwise.server.dto.FriendExpenseResponse(
+            t.id, payer.id, payee.id, payer.name, payee.name,
+            CAST(t.amount AS BigDecimal), t.description, t.date, t.settled)
+        FROM Transaction t
+        JOIN t.payer payer
+        JOIN t.payee payee
+        WHERE t.type = com.splitwise.server.model.Transaction.TransactionType.FRIEND
+        AND ((payer.id = :userId AND payee.id = :friendId) OR (payer.id = :friendId AND payee.id = :userId))
+    """)
+    List<FriendExpenseResponse> findFriendExpenseResponses(@Param("userId") Long userId, @Param("friendId") Long friendId);
+
+    @Query("SELECT COALESCE(SUM(CAST(t.amount AS BigDecimal)), 0) FROM Transaction t WHERE t.payer.id = :userId AND t.settled = false")
     BigDecimal findTotalOwedByUser(@Param("userId") Long userId);
 
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.payee.id = :userId AND t.settled = false")
+    @Query("SELECT COALESCE(SUM(CAST(t.amount AS BigDecimal)), 0) FROM Transaction t WHERE t.payee.id = :userId AND t.settled = false")
     BigDecimal findTotalOwedToUser(@Param("userId") Long userId);
 
     @Query(value = "SELECT t FROM Transaction t " +
@@ -0,0 +1,45 @@
+package com.splitwise.server.repo;
+
+import com.splitwise.server.model.UserBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserBalanceRepo extends JpaRepository<UserBalance, Long> {
+    // Ordered by user so concurrent writers always lock rows in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM UserBalance b WHERE b.userId IN :userIds ORDER BY b.userId")
+    List<UserBalance> lockByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = """
+    INSERT INTO user_balances (user_id, amount_owed, amount_lent)
+    SELECT u.id,
+           COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.payee_id = u.id AND t.settled = false), 0),
+           COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.payer_id = u.id AND t.settled = false), 0)
+    FROM users u
+""", nativeQuery = true)
+    int rebuildFromTransactions();
+
+    // Rows of {user_id, owed drift, lent drift}: what the transactions say minus what the ledger holds
+    @Query(value = """
+    SELECT x.user_id, SUM(x.owed), SUM(x.lent)
+    FROM (
+        SELECT t.payee_id AS user_id, t.amount AS owed, 0 AS lent FROM transactions t WHERE t.settled = false
+        UNION ALL
+        SELECT t.payer_id AS user_id, 0 AS owed, t.amount AS lent FROM transactions t WHERE t.settled = false
+        UNION ALL
+        SELECT b.user_id, -b.amount_owed AS owed, -b.amount_lent AS lent FROM user_balances b
+    ) x
+    GROUP BY x.user_id
+    HAVING SUM(x.owed) <> 0 OR SUM(x.lent) <> 0
+    ORDER BY x.user_id
+""", nativeQuery = true)
+    List<Object[]> findDrift();
+}
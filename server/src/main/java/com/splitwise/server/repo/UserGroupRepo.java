@@ -1,7 +1,5 @@
 package com.splitwise.server.repo;
 
-import com.splitwise.server.model.Group;
-import com.splitwise.server.model.User;
 import com.splitwise.server.model.UserGroup;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,15 +7,19 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface UserGroupRepo extends JpaRepository<UserGroup, Long> {
-    @Query("SELECT ug FROM UserGroup ug WHERE ug.user = :user AND ug.group = :group")
-    Optional<UserGroup> findByUserAndGroup(User user, Group group);
+    @Query("SELECT COUNT(ug) > 0 FROM UserGroup ug WHERE ug.user.id = :userId AND ug.group.id = :groupId")
+    boolean existsByUserIdAndGroupId(@Param("userId") Long userId, @Param("groupId") Long groupId);
+
+    @Query("SELECT ug.user.id FROM UserGroup ug WHERE ug.group.id = :groupId AND ug.user.id IN :userIds")
+    List<Long> findMemberIds(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
 
     @Transactional
     @Modifying
-    @Query("DELETE FROM UserGroup ug WHERE ug.user = :user AND ug.group = :group")
-    void deleteByUserAndGroup(@Param("user") User user, @Param("group") Group group);
+    @Query("DELETE FROM UserGroup ug WHERE ug.user.id = :userId AND ug.group.id = :groupId")
+    int deleteByUserIdAndGroupId(@Param("userId") Long userId, @Param("groupId") Long groupId);
 }
 
@@ -1,11 +1,13 @@
 package com.splitwise.server.repo;
 
 import com.splitwise.server.model.User;
+import com.splitwise.server.security.AuthenticatedUser;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +15,16 @@ import java.util.Optional;
 public interface UserRepo extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    @Query("""
+    SELECT new com.splitwise.server.security.AuthenticatedUser(u.id, u.email, u.name, u.role, u.password)
+    FROM User u
+    WHERE u.email = :email
+""")
+    Optional<AuthenticatedUser> findPrincipalByEmail(@Param("email") String email);
+
+    @Query("SELECT u.email, u.id FROM User u WHERE u.email IN :emails")
+    List<Object[]> findIdsByEmails(@Param("emails") Collection<String> emails);
+
     @Query("""
     SELECT u FROM User u
     WHERE u.id NOT IN (
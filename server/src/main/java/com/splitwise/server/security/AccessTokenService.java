@@ -0,0 +1,62 @@
+package com.splitwise.server.security;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Issues and reads the HMAC-signed access tokens used when
+ * {@code splitwise.auth.mode=token}. Every claim a controller needs is in the
+ * token, so validating a request never touches the database or a session store.
+ */
+public class AccessTokenService {
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String NAME_CLAIM = "name";
+    private static final String ROLE_CLAIM = "role";
+
+    private final JwtEncoder jwtEncoder;
+    private final Duration ttl;
+
+    public AccessTokenService(JwtEncoder jwtEncoder, Duration ttl) {
+        this.jwtEncoder = jwtEncoder;
+        this.ttl = ttl;
+    }
+
+    public String issue(AuthenticatedUser user) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(user.getEmail())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(NAME_CLAIM, user.getName())
+                .claim(ROLE_CLAIM, user.getRole())
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public static AbstractAuthenticationToken toAuthentication(Jwt jwt) {
+        Number userId = jwt.getClaim(USER_ID_CLAIM);
+        AuthenticatedUser principal = new AuthenticatedUser(
+                userId.longValue(),
+                jwt.getSubject(),
+                jwt.getClaimAsString(NAME_CLAIM),
+                jwt.getClaimAsString(ROLE_CLAIM),
+                null
+        );
+        return UsernamePasswordAuthenticationToken.authenticated(principal, jwt, principal.getAuthorities());
+    }
+}
@@ -0,0 +1,48 @@
+package com.splitwise.server.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The principal stored in the security context. It is built from a single-row
+ * projection of the users table and carries no entity references, so login and
+ * session deserialization never touch a user's groups or expenses.
+ */
+@Getter
+@EqualsAndHashCode(of = "id")
+public final class AuthenticatedUser implements UserDetails {
+    private final Long id;
+    private final String email;
+    private final String name;
+    private final String role;
+    private final String password;
+
+    public AuthenticatedUser(Long id, String email, String name, String role, String password) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.role = role;
+        this.password = password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", email='" + email + "', name='" + name + "'}";
+    }
+}
@@ -0,0 +1,69 @@
+package com.splitwise.server.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Greedy min-cash-flow: repeatedly matches the largest creditor with the largest
+ * debtor. Every step clears at least one member, so N members settle in at most
+ * N - 1 payments, in O(N log N) time.
+ */
+public final class DebtSimplifier {
+
+    public record Payment(int from, int to, long amount) {
+    }
+
+    private DebtSimplifier() {
+    }
+
+    /**
+     * @param netPositions net position per member in minor units; positive means the
+     *                     member is owed money, negative means the member owes. Must sum to zero.
+     * @return payments from debtor index to creditor index
+     */
+    public static List<Payment> simplify(long[] netPositions) {
+        long[] remaining = netPositions.clone();
+        // Ties fall back to member index so the same balances always yield the same plan
+        PriorityQueue<Integer> creditors = new PriorityQueue<>((a, b) -> {
+            int byAmount = Long.compare(remaining[b], remaining[a]);
+            return byAmount != 0 ? byAmount : Integer.compare(a, b);
+        });
+        PriorityQueue<Integer> debtors = new PriorityQueue<>((a, b) -> {
+            int byAmount = Long.compare(remaining[a], remaining[b]);
+            return byAmount != 0 ? byAmount : Integer.compare(a, b);
+        });
+
+        long total = 0;
+        for (int i = 0; i < remaining.length; i++) {
+            total += remaining[i];
+            if (remaining[i] > 0) {
+                creditors.add(i);
+            } else if (remaining[i] < 0) {
+                debtors.add(i);
+            }
+        }
+        if (total != 0) {
+            throw new IllegalArgumentException("Net positions must sum to zero, got " + total);
+        }
+
+        List<Payment> payments = new ArrayList<>(Math.max(0, creditors.size() + debtors.size() - 1));
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            int creditor = creditors.poll();
+            int debtor = debtors.poll();
+            long amount = Math.min(remaining[creditor], -remaining[debtor]);
+
+            payments.add(new Payment(debtor, creditor, amount));
+            remaining[creditor] -= amount;
+            remaining[debtor] += amount;
+
+            if (remaining[creditor] > 0) {
+                creditors.add(creditor);
+            }
+            if (remaining[debtor] < 0) {
+                debtors.add(debtor);
+            }
+        }
+        return payments;
+    }
+}
@@ -0,0 +1,117 @@
+package com.splitwise.server.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.dto.ExpenseImportResult;
+import com.splitwise.server.dto.ExpenseImportRow;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams an uploaded CSV or NDJSON file into expenses. The body is read a line at a
+ * time and written in chunks of {@link #CHUNK_SIZE} rows, each in its own transaction,
+ * so memory stays flat however large the file is. A chunk that fails to commit is
+ * reported row by row; earlier chunks stay imported.
+ * <p>
+ * CSV files need a header row naming the {@link ExpenseImportRow} fields, with
+ * {@code sharedWith} emails separated by {@code ;}. Quoted fields may contain commas
+ * but not line breaks.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class ExpenseImportService {
+    static final int CHUNK_SIZE = 500;
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ExpenseService expenseService;
+    private final ObjectReader jsonReader;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .build();
+
+    public ExpenseImportService(ExpenseService expenseService, ObjectMapper objectMapper) {
+        this.expenseService = expenseService;
+        this.jsonReader = objectMapper.readerFor(ExpenseImportRow.class);
+    }
+
+    public ExpenseImportResult importNdjson(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return importLines(reader, 0, jsonReader);
+    }
+
+    public ExpenseImportResult importCsv(InputStream body) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("CSV header row is required");
+        }
+
+        CsvSchema.Builder schema = CsvSchema.builder().setArrayElementSeparator(";");
+        for (String column : header.replace("\uFEFF", "").split(",")) {
+            schema.addColumn(column.trim());
+        }
+        return importLines(reader, 1, csvMapper.readerFor(ExpenseImportRow.class).with(schema.build()));
+    }
+
+    private ExpenseImportResult importLines(BufferedReader reader, long linesRead, ObjectReader rowReader)
+            throws IOException {
+        ExpenseImportResult result = new ExpenseImportResult();
+        List<ExpenseImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long lineNumber = linesRead;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                ExpenseImportRow row = rowReader.readValue(line);
+                row.setLine(lineNumber);
+                chunk.add(row);
+            } catch (JsonProcessingException e) {
+                fail(result, lineNumber, "Malformed row: " + e.getOriginalMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void writeChunk(List<ExpenseImportRow> chunk, ExpenseImportResult result) {
+        try {
+            List<ExpenseImportResult.RowError> errors = expenseService.importExpenses(chunk);
+            result.setImported(result.getImported() + chunk.size() - errors.size());
+            errors.forEach(error -> fail(result, error.getLine(), error.getMessage()));
+        } catch (RuntimeException e) {
+            String reason = "Not imported, chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            chunk.forEach(row -> fail(result, row.getLine(), reason));
+        }
+    }
+
+    private static void fail(ExpenseImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ExpenseImportResult.RowError(line, message));
+        }
+    }
+}
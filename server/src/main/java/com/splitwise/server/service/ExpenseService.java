@@ -1,43 +1,67 @@
 package com.splitwise.server.service;
 
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.dto.ExpenseImportResult;
+import com.splitwise.server.dto.ExpenseImportRow;
 import com.splitwise.server.dto.ExpenseRequestDTO;
 import com.splitwise.server.dto.ExpenseResponseDTO;
+import com.splitwise.server.dto.GroupChangedEvent;
 import com.splitwise.server.model.Expense;
 import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Money;
 import com.splitwise.server.model.Transaction;
 import com.splitwise.server.model.User;
 import com.splitwise.server.repo.ExpenseRepo;
 import com.splitwise.server.repo.GroupRepo;
 import com.splitwise.server.repo.TransactionRepo;
 import com.splitwise.server.repo.UserRepo;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ExpenseService {
     private final ExpenseRepo expenseRepo;
     private final GroupRepo groupRepo;
     private final UserRepo userRepo;
     private final TransactionRepo transactionRepo;
+    private final GroupBalanceService groupBalanceService;
+    private final UserBalanceService userBalanceService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ExpenseService(ExpenseRepo expenseRepo, GroupRepo groupRepo, UserRepo userRepo, TransactionRepo transactionRepo) {
+    public ExpenseService(ExpenseRepo expenseRepo, GroupRepo groupRepo, UserRepo userRepo, TransactionRepo transactionRepo,
+                          GroupBalanceService groupBalanceService, UserBalanceService userBalanceService,
+                          EntityManager entityManager, ApplicationEventPublisher eventPublisher) {
         this.expenseRepo = expenseRepo;
         this.groupRepo = groupRepo;
         this.userRepo = userRepo;
         this.transactionRepo = transactionRepo;
+        this.groupBalanceService = groupBalanceService;
+        this.userBalanceService = userBalanceService;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<ExpenseResponseDTO> getAllExpenses() {
         return expenseRepo.findAll().stream()
-                .map(this::mapToResponseDTO)
+                .map(ExpenseService::mapToResponseDTO)
                 .collect(Collectors.toList());
     }
 
@@ -49,7 +73,7 @@ public class ExpenseService {
         List<Expense> expenses = expenseRepo.findByGroup(group);
 
         return expenses.stream()
-                .map(this::mapToResponseDTO)
+                .map(ExpenseService::mapToResponseDTO)
                 .collect(Collectors.toList());
     }
 
@@ -61,52 +85,231 @@ public class ExpenseService {
         User payer = userRepo.findById(expenseRequestDTO.getPayerId())
                 .orElseThrow(() -> new RuntimeException("Payer not found"));
 
-        Set<User> sharedWithUsers = new HashSet<>();
-        for (Long userId : expenseRequestDTO.getSharedWithUserIds()) {
-            User user = userRepo.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found: " + userId));
-            sharedWithUsers.add(user);
+        if (expenseRequestDTO.getAmount() == null || expenseRequestDTO.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
         }
+        Money amount = Money.of(expenseRequestDTO.getAmount());
 
-        sharedWithUsers.remove(payer);
-        if (sharedWithUsers.isEmpty()) {
-            throw new RuntimeException("Cannot split expense among 0 users");
+        SplitStrategy strategy = SplitStrategy.of(expenseRequestDTO.getSplitType());
+        Map<Long, BigDecimal> splits = expenseRequestDTO.getSplits();
+        Set<Long> participantIds = new HashSet<>();
+        if (strategy == SplitStrategy.EQUAL) {
+            participantIds.addAll(expenseRequestDTO.getSharedWithUserIds());
+            participantIds.add(payer.getId());
+        } else if (splits == null || splits.isEmpty()) {
+            throw new IllegalArgumentException("Splits are required for a " + strategy + " split");
+        } else {
+            participantIds.addAll(splits.keySet());
+        }
+
+        List<User> participants = new ArrayList<>(userRepo.findAllById(participantIds));
+        if (participants.size() < participantIds.size()) {
+            Set<Long> foundIds = participants.stream().map(User::getId).collect(Collectors.toSet());
+            Long missingId = participantIds.stream().filter(id -> !foundIds.contains(id)).findFirst().orElseThrow();
+            throw new RuntimeException("User not found: " + missingId);
         }
+        participants.sort(Comparator.comparing(User::getId));
 
-        BigDecimal splitAmount = expenseRequestDTO.getAmount()
-                .divide(BigDecimal.valueOf(sharedWithUsers.size() + 1), 2, RoundingMode.HALF_UP);
+        long[] values;
+        if (strategy == SplitStrategy.EQUAL) {
+            values = new long[participants.size()];
+        } else {
+            values = strategy.toUnits(participants.stream().map(user -> splits.get(user.getId())).toArray(BigDecimal[]::new));
+        }
+        long[] shares = strategy.split(amount.getMinorUnits(), values);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Transaction> transactions = owedShares(group, payer, participants, shares,
+                expenseRequestDTO.getDescription(), now);
+        if (transactions.isEmpty()) {
+            throw new RuntimeException("Cannot split expense among 0 users");
+        }
 
         Expense expense = new Expense();
-        expense.setAmount(expenseRequestDTO.getAmount());
-        expense.setDate(LocalDateTime.now());
+        expense.setAmount(amount);
+        expense.setDate(now);
         expense.setGroup(group);
         expense.setPayer(payer);
-        expense.setSharedWith(sharedWithUsers);
+        expense.setSharedWith(transactions.stream().map(Transaction::getPayee).collect(Collectors.toSet()));
         expense.setDescription(expenseRequestDTO.getDescription());
         expenseRepo.save(expense);
 
+        transactionRepo.saveAll(transactions);
+        groupBalanceService.recordTransactions(transactions);
+        userBalanceService.recordTransactions(transactions);
+        eventPublisher.publishEvent(new GroupChangedEvent(group.getId(), GroupChangedEvent.Change.EXPENSE_ADDED));
+
+        return mapToResponseDTO(expense);
+    }
+
+
+    /**
+     * Writes one chunk of imported rows: users and groups are resolved with one query
+     * each, then expenses, transactions and ledger changes go out as JDBC batches.
+     * Rows that fail validation are skipped and returned; the rest commit together.
+     */
+    @Transactional
+    public List<ExpenseImportResult.RowError> importExpenses(List<ExpenseImportRow> rows) {
+        Set<String> emails = new HashSet<>();
+        Set<Long> groupIds = new HashSet<>();
+        for (ExpenseImportRow row : rows) {
+            if (row.getPayer() != null) {
+                emails.add(row.getPayer());
+            }
+            if (row.getSharedWith() != null) {
+                emails.addAll(row.getSharedWith());
+            }
+            if (row.getGroupId() != null) {
+                groupIds.add(row.getGroupId());
+            }
+        }
+        Map<String, Long> userIds = new HashMap<>();
+        if (!emails.isEmpty()) {
+            for (Object[] user : userRepo.findIdsByEmails(emails)) {
+                userIds.put((String) user[0], (Long) user[1]);
+            }
+        }
+        Set<Long> existingGroupIds = groupIds.isEmpty() ? Set.of() : new HashSet<>(groupRepo.findExistingIds(groupIds));
+
+        List<ExpenseImportResult.RowError> errors = new ArrayList<>();
+        List<Expense> expenses = new ArrayList<>(rows.size());
+        List<Transaction> transactions = new ArrayList<>();
+        for (ExpenseImportRow row : rows) {
+            try {
+                Expense expense = toImportedExpense(row, userIds, existingGroupIds);
+                List<Transaction> split = splitTransactions(expense.getGroup(), expense.getPayer(),
+                        expense.getSharedWith(), expense.getAmount(), expense.getDescription(), expense.getDate());
+                split.forEach(transaction -> transaction.setSettled(Boolean.TRUE.equals(row.getSettled())));
+                expenses.add(expense);
+                transactions.addAll(split);
+            } catch (IllegalArgumentException e) {
+                errors.add(new ExpenseImportResult.RowError(row.getLine(), e.getMessage()));
+            }
+        }
+
+        expenseRepo.saveAll(expenses);
+        transactionRepo.saveAll(transactions);
+        groupBalanceService.recordTransactions(transactions);
+        userBalanceService.recordTransactions(transactions);
+        expenses.stream()
+                .map(expense -> expense.getGroup().getId())
+                .distinct()
+                .sorted()
+                .forEach(groupId -> eventPublisher.publishEvent(
+                        new GroupChangedEvent(groupId, GroupChangedEvent.Change.EXPENSES_IMPORTED)));
+
+        // With open-session-in-view the request's persistence context outlives this
+        // transaction; clearing it keeps a long import from accumulating every chunk
+        entityManager.flush();
+        entityManager.clear();
+        return errors;
+    }
+
+    private Expense toImportedExpense(ExpenseImportRow row, Map<String, Long> userIds, Set<Long> existingGroupIds) {
+        if (row.getGroupId() == null || !existingGroupIds.contains(row.getGroupId())) {
+            throw new IllegalArgumentException("Group not found: " + row.getGroupId());
+        }
+        if (row.getAmount() == null || row.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (row.getDescription() == null || row.getDescription().isBlank()) {
+            throw new IllegalArgumentException("Description is required");
+        }
+        Long payerId = userIds.get(row.getPayer());
+        if (payerId == null) {
+            throw new IllegalArgumentException("Payer not found: " + row.getPayer());
+        }
+
+        // References rather than loaded users: only the ids are needed to write the rows
+        User payer = userRepo.getReferenceById(payerId);
+        Set<User> sharedWithUsers = new HashSet<>();
+        for (String email : row.getSharedWith() == null ? List.<String>of() : row.getSharedWith()) {
+            Long userId = userIds.get(email);
+            if (userId == null) {
+                throw new IllegalArgumentException("User not found: " + email);
+            }
+            if (!userId.equals(payerId)) {
+                sharedWithUsers.add(userRepo.getReferenceById(userId));
+            }
+        }
+        if (sharedWithUsers.isEmpty()) {
+            throw new IllegalArgumentException("Cannot split expense among 0 users");
+        }
+
+        Expense expense = new Expense();
+        expense.setAmount(Money.of(row.getAmount()));
+        expense.setDate(parseImportDate(row.getDate()));
+        expense.setGroup(groupRepo.getReferenceById(row.getGroupId()));
+        expense.setPayer(payer);
+        expense.setSharedWith(sharedWithUsers);
+        expense.setDescription(row.getDescription());
+        return expense;
+    }
+
+    private static LocalDateTime parseImportDate(String date) {
+        if (date == null || date.isBlank()) {
+            return LocalDateTime.now();
+        }
+        try {
+            return date.length() == 10 ? LocalDate.parse(date).atStartOfDay() : LocalDateTime.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+    }
+
+    /**
+     * Splits {@code amount} equally between the payer and everyone in {@code sharedWithUsers},
+     * returning one unsaved transaction per participant who owes the payer.
+     */
+    static List<Transaction> splitTransactions(Group group, User payer, Set<User> sharedWithUsers,
+                                               Money amount, String description) {
+        return splitTransactions(group, payer, sharedWithUsers, amount, description, LocalDateTime.now());
+    }
+
+    static List<Transaction> splitTransactions(Group group, User payer, Set<User> sharedWithUsers,
+                                               Money amount, String description, LocalDateTime date) {
+        List<User> participants = new ArrayList<>(sharedWithUsers.size() + 1);
+        participants.add(payer);
         for (User user : sharedWithUsers) {
-            if (!user.equals(payer)) {
+            if (!user.getId().equals(payer.getId())) {
+                participants.add(user);
+            }
+        }
+        participants.sort(Comparator.comparing(User::getId));
+
+        long[] shares = SplitStrategy.EQUAL.split(amount.getMinorUnits(), new long[participants.size()]);
+        return owedShares(group, payer, participants, shares, description, date);
+    }
+
+    /**
+     * One unsaved transaction for each participant other than the payer with a non-zero
+     * share. Participants are in id order so leftover minor units land the same way on
+     * every run.
+     */
+    private static List<Transaction> owedShares(Group group, User payer, List<User> participants, long[] shares,
+                                                String description, LocalDateTime date) {
+        List<Transaction> transactions = new ArrayList<>(participants.size());
+        for (int i = 0; i < participants.size(); i++) {
+            User user = participants.get(i);
+            if (shares[i] > 0 && !user.getId().equals(payer.getId())) {
                 Transaction transaction = new Transaction();
                 transaction.setPayer(payer);
                 transaction.setPayee(user);
-                transaction.setAmount(splitAmount);
-                transaction.setDate(LocalDateTime.now());
+                transaction.setAmount(Money.ofMinor(shares[i]));
+                transaction.setDate(date);
                 transaction.setGroup(group);
-                transaction.setDescription(expenseRequestDTO.getDescription());
+                transaction.setDescription(description);
                 transaction.setType(Transaction.TransactionType.GROUP);
-                transactionRepo.save(transaction);
+                transactions.add(transaction);
             }
         }
-
-        return mapToResponseDTO(expense);
+        return transactions;
     }
 
-
-    private ExpenseResponseDTO mapToResponseDTO(Expense expense) {
+    static ExpenseResponseDTO mapToResponseDTO(Expense expense) {
         return new ExpenseResponseDTO(
                 expense.getId(),
-                expense.getAmount(),
+                expense.getAmount().toBigDecimal(),
                 expense.getDescription(),
                 expense.getDate(),
                 expense.getPayer().getName(),
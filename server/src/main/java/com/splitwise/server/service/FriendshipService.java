@@ -1,18 +1,22 @@
 package com.splitwise.server.service;
 
+import com.splitwise.server.config.MetricsConfig;
 import com.splitwise.server.dto.FriendDTO;
 import com.splitwise.server.model.Friendship;
 import com.splitwise.server.model.User;
 import com.splitwise.server.repo.FriendshipRepo;
 import com.splitwise.server.repo.UserRepo;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class FriendshipService {
 
     private final FriendshipRepo friendshipRepository;
@@ -43,6 +47,7 @@ public class FriendshipService {
         friendshipRepository.save(friendship);
     }
 
+    @Transactional(readOnly = true)
     public List<FriendDTO> getAllFriends(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -70,6 +75,7 @@ public class FriendshipService {
         friendshipRepository.delete(friendship);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getPotentialFriends(Long currentUserId) {
         return userRepository.findAllNonFriends(currentUserId);
     }
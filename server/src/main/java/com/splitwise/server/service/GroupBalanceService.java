@@ -0,0 +1,135 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.model.GroupBalance;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.repo.GroupBalanceRepo;
+import com.splitwise.server.repo.GroupRepo;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the group_balances ledger in step with unsettled group transactions.
+ * Callers must invoke these methods inside the transaction that writes the
+ * transaction rows, so the ledger and the rows commit or roll back together.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class GroupBalanceService {
+    private static final String INSERT_MISSING_BALANCE =
+            "INSERT INTO group_balances (id, group_id, user_id, amount_owed, amount_lent) " +
+            "VALUES (nextval('group_balances_seq'), ?, ?, 0, 0) ON CONFLICT DO NOTHING";
+
+    private final GroupBalanceRepo groupBalanceRepo;
+    private final GroupRepo groupRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    public GroupBalanceService(GroupBalanceRepo groupBalanceRepo, GroupRepo groupRepo, JdbcTemplate jdbcTemplate) {
+        this.groupBalanceRepo = groupBalanceRepo;
+        this.groupRepo = groupRepo;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransaction(Transaction transaction) {
+        applyTransactions(List.of(transaction), false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransactions(Collection<Transaction> transactions) {
+        applyTransactions(transactions, false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseTransaction(Transaction transaction) {
+        applyTransactions(List.of(transaction), true);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseTransactions(Collection<Transaction> transactions) {
+        applyTransactions(transactions, true);
+    }
+
+    @Transactional
+    public int rebuild() {
+        groupBalanceRepo.deleteAllInBatch();
+        // Repaired balances invalidate whatever clients have cached for every group
+        groupRepo.incrementAllVersions();
+        return groupBalanceRepo.rebuildFromTransactions();
+    }
+
+    private void applyTransactions(Collection<Transaction> transactions, boolean reverse) {
+        // Collapse the batch to one delta per (group, user) so an expense split
+        // N ways touches the payer's row once instead of N times. Groups are visited
+        // in id order so batches spanning several groups lock them consistently.
+        // Deltas are summed as minor units rather than a new BigDecimal per add
+        Map<Long, Map<Long, Delta>> deltasByGroup = new TreeMap<>();
+        for (Transaction t : transactions) {
+            if (t.getGroup() == null || t.isSettled()) {
+                continue;
+            }
+            long amount = reverse ? -t.getAmount().getMinorUnits() : t.getAmount().getMinorUnits();
+            Map<Long, Delta> deltas = deltasByGroup.computeIfAbsent(t.getGroup().getId(), k -> new LinkedHashMap<>());
+
+            Delta payee = deltas.computeIfAbsent(t.getPayee().getId(), k -> new Delta());
+            payee.owed = Math.addExact(payee.owed, amount);
+
+            Delta payer = deltas.computeIfAbsent(t.getPayer().getId(), k -> new Delta());
+            payer.lent = Math.addExact(payer.lent, amount);
+        }
+
+        deltasByGroup.forEach(this::applyGroupDeltas);
+    }
+
+    private void applyGroupDeltas(Long groupId, Map<Long, Delta> deltas) {
+        // One locking read for all affected rows; the changes are then flushed as
+        // batched UPDATEs rather than a statement per member
+        List<GroupBalance> balances = groupBalanceRepo.lockByGroupIdAndUserIds(groupId, deltas.keySet());
+        if (balances.size() < deltas.size()) {
+            insertMissingBalances(groupId, deltas.keySet(), balances);
+            balances = groupBalanceRepo.lockByGroupIdAndUserIds(groupId, deltas.keySet());
+        }
+
+        for (GroupBalance balance : balances) {
+            Delta delta = deltas.get(balance.getUser().getId());
+            balance.setAmountOwed(balance.getAmountOwed().plus(Money.ofMinor(delta.owed)));
+            balance.setAmountLent(balance.getAmountLent().plus(Money.ofMinor(delta.lent)));
+        }
+    }
+
+    /**
+     * Inserts zero rows for members who have none yet, in one JDBC batch. Two first
+     * writes for the same member would otherwise both insert and one would fail the
+     * unique (group_id, user_id) constraint; with ON CONFLICT DO NOTHING the later one
+     * waits for the earlier to commit, skips the row, then locks and updates it.
+     */
+    private void insertMissingBalances(Long groupId, Set<Long> userIds, List<GroupBalance> existing) {
+        Set<Long> missing = new TreeSet<>(userIds);
+        for (GroupBalance balance : existing) {
+            missing.remove(balance.getUser().getId());
+        }
+        List<Object[]> rows = new ArrayList<>(missing.size());
+        for (Long userId : missing) {
+            rows.add(new Object[]{groupId, userId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MISSING_BALANCE, rows);
+    }
+
+    private static final class Delta {
+        private long owed;
+        private long lent;
+    }
+}
@@ -0,0 +1,146 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.config.GroupEventsConfig;
+import com.splitwise.server.dto.GroupChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes {@link GroupChangedEvent}s to clients subscribed to a group's event stream.
+ * Events are sent only after the publishing transaction commits, so a client that
+ * refetches on an event always sees the change. An idle subscriber is just a parked
+ * async request: it holds no request thread and no database connection.
+ */
+@Service
+public class GroupEventService {
+    public static final String EVENT_NAME = "group-changed";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    public GroupEventService(JdbcTemplate jdbcTemplate,
+                             @Qualifier(GroupEventsConfig.GROUP_EVENTS_EXECUTOR) Executor executor,
+                             @Value("${splitwise.events.timeout:30m}") Duration timeout,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("group.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open group event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens an event stream for the group. The stream ends after the configured timeout;
+     * EventSource clients reconnect on their own and refetch once on reconnect.
+     */
+    public SseEmitter subscribe(Long groupId) throws IOException {
+        // Checked over plain JDBC: with open-session-in-view a repository call would tie a
+        // pooled connection to the request's EntityManager, which lives as long as the stream
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM groups WHERE id = ?)", Boolean.class, groupId))) {
+            throw new IllegalArgumentException("Group not found");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        // Added inside compute so it cannot race unsubscribe dropping the group's last emitter
+        subscribers.compute(groupId, (id, emitters) -> {
+            Set<SseEmitter> set = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(groupId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitter.complete());
+
+        // Sends the headers straight away so the client knows it is subscribed
+        emitter.send(SseEmitter.event().comment("subscribed"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGroupChanged(GroupChangedEvent event) {
+        if (subscribers.containsKey(event.getGroupId())) {
+            executor.execute(() -> broadcast(event));
+        }
+    }
+
+    /**
+     * Keeps idle streams from being closed by proxies and notices clients that went
+     * away without closing the connection.
+     */
+    @Scheduled(fixedRateString = "${splitwise.events.heartbeat:PT30S}")
+    public void heartbeat() {
+        subscribers.forEach((groupId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(groupId, emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    /**
+     * Ends every stream when shutdown starts. Graceful shutdown waits for in-flight
+     * requests, and open streams would otherwise hold it up until its timeout; clients
+     * reconnect to another instance.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void completeAll() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void broadcast(GroupChangedEvent event) {
+        Set<SseEmitter> emitters = subscribers.get(event.getGroupId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(event.getGroupId(), emitter,
+                    SseEmitter.event().name(EVENT_NAME).data(event, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void send(Long groupId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected or the stream already completed
+            unsubscribe(groupId, emitter);
+        }
+    }
+
+    private void unsubscribe(Long groupId, SseEmitter emitter) {
+        subscribers.computeIfPresent(groupId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -1,52 +1,67 @@
 package com.splitwise.server.service;
 
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.dto.GroupChangedEvent;
 import com.splitwise.server.dto.GroupDTO;
 import com.splitwise.server.dto.UserDTO;
 import com.splitwise.server.model.Group;
 import com.splitwise.server.model.User;
 import com.splitwise.server.model.UserGroup;
+import com.splitwise.server.repo.GroupBalanceRepo;
 import com.splitwise.server.repo.GroupRepo;
 import com.splitwise.server.repo.TransactionRepo;
 import com.splitwise.server.repo.UserGroupRepo;
 import com.splitwise.server.repo.UserRepo;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class GroupService {
     private final GroupRepo repo;
     private final UserGroupRepo userGroupRepo;
     private final UserRepo userRepo;
     private final TransactionRepo transactionRepo;
+    private final GroupBalanceRepo groupBalanceRepo;
     TransactionService transactionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public GroupService(GroupRepo groupRepo, UserGroupRepo userGroupRepo, UserRepo userRepo, TransactionRepo transactionRepo, TransactionService transactionService) {
+    public GroupService(GroupRepo groupRepo, UserGroupRepo userGroupRepo, UserRepo userRepo, TransactionRepo transactionRepo,
+                        GroupBalanceRepo groupBalanceRepo, TransactionService transactionService,
+                        ApplicationEventPublisher eventPublisher) {
         this.repo = groupRepo;
         this.userGroupRepo = userGroupRepo;
         this.userRepo = userRepo;
         this.transactionRepo = transactionRepo;
+        this.groupBalanceRepo = groupBalanceRepo;
         this.transactionService = transactionService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<GroupDTO> getUserGroups(Long userId) {
         return repo.findByUserGroups_User_Id(userId).stream()
                 .map(group -> new GroupDTO(group.getId(), group.getName(), Collections.emptyList())) // No members here
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public GroupDTO getGroupById(Long id) {
         Group group = repo.findById(id).orElseThrow(() -> new RuntimeException("Group not found"));
 
-        List<UserDTO> members = transactionRepo.getTotalOwedPerUser(group.getId()).stream()
+        List<UserDTO> members = groupBalanceRepo.getTotalOwedPerUser(group.getId()).stream()
                 .map(row -> new UserDTO(
                         ((Number) row[0]).longValue(),
                         (String) row[1],
@@ -75,68 +90,76 @@ public class GroupService {
     }
 
 
+    @Transactional
     public Group addUsersToGroup(Long groupId, List<Long> userIds) {
         Group group = repo.findById(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group not found"));
 
-        List<User> users = userRepo.findAllById(userIds);
-        if (users.isEmpty()) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("No valid users found to add");
+        }
+        // One indexed lookup finds the existing members without loading the group's
+        // membership collection; UNIQUE(user_id, group_id) stops a concurrent add
+        Set<Long> memberIds = new HashSet<>(userGroupRepo.findMemberIds(groupId, userIds));
+        List<Long> newUserIds = userIds.stream()
+                .filter(userId -> !memberIds.contains(userId))
+                .distinct()
+                .toList();
+        List<User> users = newUserIds.isEmpty() ? List.of() : userRepo.findAllById(newUserIds);
+        if (users.isEmpty() && newUserIds.size() == userIds.size()) {
             throw new IllegalArgumentException("No valid users found to add");
         }
-
-        Set<Long> existingUserIds = group.getUserGroups()
-                .stream()
-                .map(userGroup -> userGroup.getUser().getId())
-                .collect(Collectors.toSet());
 
         for (User user : users) {
-            if (!existingUserIds.contains(user.getId())) {
-                UserGroup userGroup = new UserGroup();
-                userGroup.setUser(user);
-                userGroup.setGroup(group);
-
-                group.getUserGroups().add(userGroup);
-                user.getUserGroups().add(userGroup);
-
-                userGroupRepo.save(userGroup);
-            }
+            userGroupRepo.save(new UserGroup(null, user, group));
+        }
+        if (!users.isEmpty()) {
+            eventPublisher.publishEvent(new GroupChangedEvent(groupId, GroupChangedEvent.Change.MEMBERS_CHANGED));
         }
 
-        return repo.save(group);
+        return group;
     }
 
     public List<Group> getGroupsUserNotIn(Long userId) {
         return repo.findGroupsUserNotIn(userId);
     }
 
+    @Transactional(rollbackFor = Exception.class)
     public void joinGroup(Long userId, Long groupId) throws Exception {
-        Group group = repo.findById(groupId).orElseThrow(() -> new Exception("Group not found"));
-        User user = userRepo.findById(userId).orElseThrow(() -> new Exception("User not found"));
-
-        // Check if user is already part of the group
-        Optional<UserGroup> existingUserGroup = userGroupRepo.findByUserAndGroup(user, group);
-        if (existingUserGroup.isPresent()) {
+        if (userGroupRepo.existsByUserIdAndGroupId(userId, groupId)) {
             throw new Exception("User is already a member of this group");
         }
+        if (!repo.existsById(groupId)) {
+            throw new Exception("Group not found");
+        }
+        if (!userRepo.existsById(userId)) {
+            throw new Exception("User not found");
+        }
 
-        UserGroup userGroup = new UserGroup();
-        userGroup.setUser(user);
-        userGroup.setGroup(group);
-        userGroupRepo.save(userGroup);
+        // A concurrent join of the same user is caught by UNIQUE(user_id, group_id)
+        try {
+            userGroupRepo.save(new UserGroup(null, userRepo.getReferenceById(userId), repo.getReferenceById(groupId)));
+        } catch (DataIntegrityViolationException e) {
+            throw new Exception("User is already a member of this group");
+        }
+        eventPublisher.publishEvent(new GroupChangedEvent(groupId, GroupChangedEvent.Change.MEMBERS_CHANGED));
     }
 
+    @Transactional
     public void leaveGroup(Long userId, Long groupId) throws Exception {
-        Group group = repo.findById(groupId)
-                .orElseThrow(() -> new Exception("Group not found"));
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new Exception("User not found"));
-
-        Optional<UserGroup> existingUserGroup = userGroupRepo.findByUserAndGroup(user, group);
-        if (existingUserGroup.isEmpty()) {
+        // The delete's row count decides membership; lookups only on the failure path,
+        // to tell the caller what was missing
+        if (userGroupRepo.deleteByUserIdAndGroupId(userId, groupId) == 0) {
+            if (!repo.existsById(groupId)) {
+                throw new Exception("Group not found");
+            }
+            if (!userRepo.existsById(userId)) {
+                throw new Exception("User not found");
+            }
             throw new Exception("User is not a member of this group");
         }
 
-        userGroupRepo.deleteByUserAndGroup(user, group);
+        eventPublisher.publishEvent(new GroupChangedEvent(groupId, GroupChangedEvent.Change.MEMBERS_CHANGED));
     }
 
 }
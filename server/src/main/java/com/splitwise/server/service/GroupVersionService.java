@@ -0,0 +1,78 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.dto.GroupChangedEvent;
+import com.splitwise.server.repo.GroupRepo;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a per-group version that changes with every committed write to the group, and
+ * turns it into the ETag of the group's reads. Conditional GETs compare against it with
+ * one primary-key lookup and answer 304 before any entity or balance is loaded.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class GroupVersionService {
+
+    /**
+     * Lets clients keep a copy but makes them revalidate it on every use. Responses that
+     * carry it also need {@code Vary: Accept}: JSON, Smile and CBOR share one tag.
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final GroupRepo groupRepo;
+
+    public GroupVersionService(GroupRepo groupRepo) {
+        this.groupRepo = groupRepo;
+    }
+
+    /**
+     * Runs inside the writing transaction, so the new version commits or rolls back
+     * with the change it stands for.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onGroupChanged(GroupChangedEvent event) {
+        groupRepo.incrementVersion(event.getGroupId());
+    }
+
+    /**
+     * The ETag for the group's current state, or null if there is no such group.
+     * Callers read it before the data, so a write landing in between can only make the
+     * body newer than its tag, which costs the client one extra full response later.
+     * The tag is weak because Tomcat only compresses responses without a strong one;
+     * If-None-Match compares weak tags the same way.
+     */
+    public String getETag(Long groupId) {
+        return groupRepo.findVersionById(groupId)
+                .map(version -> "W/\"" + groupId + "-" + version + "\"")
+                .orElse(null);
+    }
+
+    /**
+     * Reads the group's ETag and, unless {@code notModified} accepts it, the body, in one
+     * read-only transaction. Both come over the same connection, so with a read replica
+     * the tag can never be newer than the body; were the tag read on the primary and the
+     * body on a lagging replica, the client would keep a stale body under a current tag
+     * and get 304s for it until the group's next write.
+     */
+    @Transactional(readOnly = true)
+    public <T> Conditional<T> readIfModified(Long groupId, Predicate<String> notModified, Supplier<T> body) {
+        String eTag = getETag(groupId);
+        if (eTag != null && notModified.test(eTag)) {
+            return new Conditional<>(eTag, true, null);
+        }
+        return new Conditional<>(eTag, false, body.get());
+    }
+
+    /** A group read's ETag (null for a missing group) and its body, unless not modified. */
+    public record Conditional<T>(String eTag, boolean notModified, T body) {
+    }
+}
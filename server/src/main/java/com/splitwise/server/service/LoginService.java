@@ -0,0 +1,45 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.config.LoginExecutorConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class LoginService {
+    private final AuthenticationManager authManager;
+    private final AsyncTaskExecutor loginExecutor;
+    private final Counter rejected;
+
+    public LoginService(AuthenticationManager authManager,
+                        @Qualifier(LoginExecutorConfig.LOGIN_EXECUTOR) AsyncTaskExecutor loginExecutor,
+                        MeterRegistry meterRegistry) {
+        this.authManager = authManager;
+        this.loginExecutor = loginExecutor;
+        this.rejected = Counter.builder("auth.login.rejected").register(meterRegistry);
+    }
+
+    /**
+     * Verifies the credentials on the login executor.
+     *
+     * @throws RejectedExecutionException immediately, when the login queue is full
+     */
+    public CompletableFuture<Authentication> authenticate(String email, String password) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> authManager.authenticate(new UsernamePasswordAuthenticationToken(email, password)),
+                    loginExecutor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+}
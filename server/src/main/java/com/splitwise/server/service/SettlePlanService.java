@@ -0,0 +1,92 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.dto.GroupChangedEvent;
+import com.splitwise.server.dto.SettlementDTO;
+import com.splitwise.server.model.GroupBalance;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.repo.GroupBalanceRepo;
+import com.splitwise.server.repo.GroupRepo;
+import com.splitwise.server.repo.TransactionRepo;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class SettlePlanService {
+    private final GroupRepo groupRepo;
+    private final GroupBalanceRepo groupBalanceRepo;
+    private final TransactionRepo transactionRepo;
+    private final UserBalanceService userBalanceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SettlePlanService(GroupRepo groupRepo, GroupBalanceRepo groupBalanceRepo, TransactionRepo transactionRepo,
+                             UserBalanceService userBalanceService, ApplicationEventPublisher eventPublisher) {
+        this.groupRepo = groupRepo;
+        this.groupBalanceRepo = groupBalanceRepo;
+        this.transactionRepo = transactionRepo;
+        this.userBalanceService = userBalanceService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SettlementDTO> getSettlePlan(Long groupId) {
+        if (!groupRepo.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found");
+        }
+        return computePlan(groupId);
+    }
+
+    /**
+     * Settles every open transaction in the group and returns the payments that
+     * clear the balances. The group's ledger rows are locked first so concurrent
+     * expenses either land before the plan is computed or after it is applied.
+     */
+    @Transactional
+    public List<SettlementDTO> applySettlePlan(Long groupId) {
+        if (!groupRepo.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found");
+        }
+        List<GroupBalance> balances = groupBalanceRepo.lockByGroupId(groupId);
+
+        List<SettlementDTO> plan = computePlan(groupId);
+        // The ledger rows hold exactly the open amounts about to be settled
+        userBalanceService.releaseGroupBalances(balances);
+        for (GroupBalance balance : balances) {
+            balance.setAmountOwed(Money.zero());
+            balance.setAmountLent(Money.zero());
+        }
+        transactionRepo.settleAllInGroup(groupId);
+        eventPublisher.publishEvent(new GroupChangedEvent(groupId, GroupChangedEvent.Change.SETTLE_PLAN_APPLIED));
+        return plan;
+    }
+
+    private List<SettlementDTO> computePlan(Long groupId) {
+        List<Object[]> rows = groupBalanceRepo.getNetPositions(groupId);
+
+        long[] ids = new long[rows.size()];
+        String[] names = new String[rows.size()];
+        long[] nets = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            ids[i] = ((Number) row[0]).longValue();
+            names[i] = (String) row[1];
+            nets[i] = ((Money) row[2]).minus((Money) row[3]).getMinorUnits();
+        }
+
+        List<SettlementDTO> plan = new ArrayList<>();
+        for (DebtSimplifier.Payment payment : DebtSimplifier.simplify(nets)) {
+            plan.add(new SettlementDTO(
+                    ids[payment.from()], names[payment.from()],
+                    ids[payment.to()], names[payment.to()],
+                    Money.ofMinor(payment.amount()).toBigDecimal()
+            ));
+        }
+        return plan;
+    }
+}
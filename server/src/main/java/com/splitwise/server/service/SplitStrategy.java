@@ -0,0 +1,162 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.model.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Divides an expense total, in minor units, between its participants. Each strategy
+ * first turns the requested per-participant values into whole units of its own
+ * (minor units, basis points or share weights), then splits in {@code long} arithmetic.
+ * Proportional splits round every share down and hand the leftover minor units out one
+ * at a time by largest remainder, ties going to the earlier participant, so the shares
+ * always add up to the total and the same request always gets the same split.
+ */
+public enum SplitStrategy {
+
+    /** Everyone pays the same; requested values are ignored. */
+    EQUAL {
+        @Override
+        long toUnits(BigDecimal value) {
+            return 1;
+        }
+
+        @Override
+        long[] split(long total, long[] values) {
+            long[] weights = new long[values.length];
+            Arrays.fill(weights, 1);
+            return allocate(total, weights);
+        }
+    },
+
+    /** Each participant's amount is given outright and the amounts must add up to the total. */
+    EXACT {
+        @Override
+        long toUnits(BigDecimal value) {
+            return scaled(value, Money.DEFAULT_CURRENCY.getDefaultFractionDigits(), "Amounts have too many decimal places");
+        }
+
+        @Override
+        long[] split(long total, long[] values) {
+            if (sum(values) != total) {
+                throw new IllegalArgumentException("Amounts must add up to the expense amount");
+            }
+            return values.clone();
+        }
+    },
+
+    /** Percentages with up to two decimals, held as basis points, that must add up to 100. */
+    PERCENTAGE {
+        @Override
+        long toUnits(BigDecimal value) {
+            return scaled(value, 2, "Percentages can have at most two decimal places");
+        }
+
+        @Override
+        long[] split(long total, long[] values) {
+            if (sum(values) != 10_000) {
+                throw new IllegalArgumentException("Percentages must add up to 100");
+            }
+            return allocate(total, values);
+        }
+    },
+
+    /** Whole-number weights, so 1, 1 and 2 split a total into quarters, quarters and a half. */
+    SHARES {
+        @Override
+        long toUnits(BigDecimal value) {
+            try {
+                return value.setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Shares must be whole numbers");
+            }
+        }
+
+        @Override
+        long[] split(long total, long[] values) {
+            if (sum(values) == 0) {
+                throw new IllegalArgumentException("At least one share is required");
+            }
+            return allocate(total, values);
+        }
+    };
+
+    public static SplitStrategy of(ExpenseRequestDTO.SplitType type) {
+        return type == null ? EQUAL : valueOf(type.name());
+    }
+
+    /** Converts one requested value into the units {@link #split} expects; rejects negatives. */
+    abstract long toUnits(BigDecimal value);
+
+    /** Returns one share per value, in minor units, adding up to exactly {@code total}. */
+    abstract long[] split(long total, long[] values);
+
+    long[] toUnits(BigDecimal[] values) {
+        long[] units = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null || values[i].signum() < 0) {
+                throw new IllegalArgumentException("Split values must not be negative");
+            }
+            units[i] = toUnits(values[i]);
+        }
+        return units;
+    }
+
+    /**
+     * Largest-remainder apportionment of {@code total} by non-negative {@code weights}
+     * with a positive sum.
+     */
+    static long[] allocate(long total, long[] weights) {
+        int n = weights.length;
+        long[] shares = new long[n];
+        long[] remainders = new long[n];
+        long allocated = 0;
+        try {
+            long weightSum = sum(weights);
+            for (int i = 0; i < n; i++) {
+                long product = Math.multiplyExact(total, weights[i]);
+                shares[i] = Math.floorDiv(product, weightSum);
+                remainders[i] = Math.floorMod(product, weightSum);
+                allocated += shares[i];
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount is too large to split");
+        }
+
+        // Fewer than n units are left over, one for each of the largest remainders
+        int left = (int) (total - allocated);
+        if (left > 0) {
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int byRemainder = Long.compare(remainders[b], remainders[a]);
+                return byRemainder != 0 ? byRemainder : Integer.compare(a, b);
+            });
+            for (int i = 0; i < left; i++) {
+                shares[order[i]]++;
+            }
+        }
+        return shares;
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum = Math.addExact(sum, value);
+        }
+        return sum;
+    }
+
+    private static long scaled(BigDecimal value, int scale, String message) {
+        try {
+            return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.splitwise.server.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.dto.TransactionDTO;
+import com.splitwise.server.repo.TransactionRepo;
+import com.splitwise.server.repo.UserRepo;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's whole transaction history, newest first, straight from two database
+ * cursors to the response. Nothing is collected in between, so heap use does not grow
+ * with the history and the first rows go out as soon as the first fetch returns.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class TransactionExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + name);
+            }
+        }
+    }
+
+    private static final List<String> CSV_COLUMNS = List.of("id", "date", "type", "groupId", "groupName",
+            "payerId", "payerName", "payeeId", "payeeName", "amount", "description", "settled");
+
+    private final TransactionRepo transactionRepo;
+    private final UserRepo userRepo;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectWriter csvWriter;
+
+    public TransactionExportService(TransactionRepo transactionRepo, UserRepo userRepo, ObjectMapper objectMapper) {
+        this.transactionRepo = transactionRepo;
+        this.userRepo = userRepo;
+        this.ndjsonWriter = objectMapper.writerFor(TransactionDTO.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        CsvMapper csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        for (String column : CSV_COLUMNS) {
+            schema.addColumn(column);
+        }
+        this.csvWriter = csvMapper.writerFor(TransactionDTO.class)
+                .with(schema.build())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public void requireUser(Long userId) {
+        if (!userRepo.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUserTransactions(Long userId, Format format, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<TransactionDTO> paid = transactionRepo.streamPaidByUser(userId);
+             Stream<TransactionDTO> owed = transactionRepo.streamOwedByUser(userId);
+             SequenceWriter writer = (format == Format.CSV ? csvWriter : ndjsonWriter).writeValues(out)) {
+            Iterator<TransactionDTO> paidRows = paid.iterator();
+            Iterator<TransactionDTO> owedRows = owed.iterator();
+            TransactionDTO nextPaid = paidRows.hasNext() ? paidRows.next() : null;
+            TransactionDTO nextOwed = owedRows.hasNext() ? owedRows.next() : null;
+
+            // Same merge as getUserTransactions, run over the cursors instead of two pages
+            while (nextPaid != null || nextOwed != null) {
+                if (nextOwed == null || (nextPaid != null && TransactionService.NEWEST_FIRST.compare(nextPaid, nextOwed) <= 0)) {
+                    writer.write(nextPaid);
+                    nextPaid = paidRows.hasNext() ? paidRows.next() : null;
+                } else {
+                    writer.write(nextOwed);
+                    nextOwed = owedRows.hasNext() ? owedRows.next() : null;
+                }
+                if (++count % TransactionRepo.EXPORT_FETCH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (format == Format.NDJSON && count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -1,35 +1,118 @@
 package com.splitwise.server.service;
 
+import com.splitwise.server.config.MetricsConfig;
 import com.splitwise.server.dto.*;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Money;
 import com.splitwise.server.model.Transaction;
 import com.splitwise.server.model.User;
+import com.splitwise.server.model.UserBalance;
 import com.splitwise.server.repo.TransactionRepo;
 import com.splitwise.server.repo.UserRepo;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.awt.print.Pageable;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class TransactionService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_BULK_SETTLE_IDS = 1000;
+
+    static final Comparator<TransactionDTO> NEWEST_FIRST = Comparator
+            .comparing(TransactionDTO::getDate)
+            .thenComparing(TransactionDTO::getId)
+            .reversed();
+
     private final TransactionRepo transactionRepo;
     private final UserRepo userRepo;
+    private final GroupBalanceService groupBalanceService;
+    private final UserBalanceService userBalanceService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TransactionService(TransactionRepo transactionRepo, UserRepo userRepo) {
+    public TransactionService(TransactionRepo transactionRepo, UserRepo userRepo, GroupBalanceService groupBalanceService,
+                              UserBalanceService userBalanceService, ApplicationEventPublisher eventPublisher) {
         this.transactionRepo = transactionRepo;
         this.userRepo = userRepo;
+        this.groupBalanceService = groupBalanceService;
+        this.userBalanceService = userBalanceService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public void settleTransaction(Long transactionId) {
-        Transaction transaction = transactionRepo.findById(transactionId)
+        // Locked so a concurrent bulk settle of the same row can't reverse it from the ledgers twice
+        Transaction transaction = transactionRepo.lockById(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        if (transaction.isSettled()) {
+            return;
+        }
 
+        groupBalanceService.reverseTransaction(transaction);
+        userBalanceService.reverseTransaction(transaction);
         transaction.setSettled(true);
         transactionRepo.save(transaction);
+        publishGroupChanges(List.of(transaction), GroupChangedEvent.Change.TRANSACTION_SETTLED);
+    }
+
+    /**
+     * Settles every open transaction in the requested scope with a single UPDATE and
+     * returns the count together with the user's totals afterwards. The balances are
+     * those of {@code userId} in the request, or of {@code currentUserId} when absent.
+     */
+    @Transactional
+    public BulkSettleResponse settleTransactions(BulkSettleRequest request, Long currentUserId) {
+        Long userId = request.getUserId() != null ? request.getUserId() : currentUserId;
+        List<Transaction> transactions = lockSettleScope(request, userId);
+
+        int settled = 0;
+        if (!transactions.isEmpty()) {
+            groupBalanceService.reverseTransactions(transactions);
+            userBalanceService.reverseTransactions(transactions);
+            settled = transactionRepo.settleByIds(transactions.stream().map(Transaction::getId).toList());
+            publishGroupChanges(transactions, GroupChangedEvent.Change.TRANSACTION_SETTLED);
+        }
+
+        UserBalance balance = userBalanceService.getBalance(userId);
+        return new BulkSettleResponse(settled, balance.getAmountLent().toBigDecimal(), balance.getAmountOwed().toBigDecimal(),
+                balance.getAmountOwed().minus(balance.getAmountLent()).toBigDecimal());
+    }
+
+    private List<Transaction> lockSettleScope(BulkSettleRequest request, Long userId) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        int scopes = (byIds ? 1 : 0) + (request.getFriendId() != null ? 1 : 0) + (request.getGroupId() != null ? 1 : 0);
+        if (scopes != 1) {
+            throw new IllegalArgumentException("Specify exactly one of ids, friendId or groupId");
+        }
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+
+        if (byIds) {
+            if (request.getIds().size() > MAX_BULK_SETTLE_IDS) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_SETTLE_IDS + " ids can be settled at once");
+            }
+            return transactionRepo.lockUnsettledByIds(request.getIds());
+        }
+        if (request.getFriendId() != null) {
+            if (request.getFriendId().equals(userId)) {
+                throw new IllegalArgumentException("Cannot settle with yourself");
+            }
+            return transactionRepo.lockUnsettledBetweenFriends(userId, request.getFriendId());
+        }
+        return transactionRepo.lockUnsettledInGroupForUser(userId, request.getGroupId());
     }
 
     public List<OweDetailsDTO> getOweDetails(Long userId, Long groupId) {
@@ -43,45 +126,52 @@ public class TransactionService {
     }
 
 
-    public List<TransactionDTO> getGroupTransactions(Long groupId) {
-        List<Transaction> transactions = transactionRepo.findByGroupId(groupId);
-        return transactions.stream()
-                .map(t -> new TransactionDTO(
-                        t.getId(),
-                        t.getPayer().getId(),
-                        t.getPayer().getName(),
-                        t.getPayee().getId(),
-                        t.getPayee().getName(),
-                        t.getAmount(),
-                        t.getDate(),
-                        t.getGroup().getId(),
-                        t.getGroup().getName(),
-                        t.isSettled(),
-                        t.getDescription()
-                ))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public TransactionPageDTO getGroupTransactions(Long groupId, String cursor, int limit) {
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+
+        List<TransactionDTO> rows = transactionRepo.findGroupPage(
+                groupId, after.date(), after.id(), PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize);
     }
 
 
-    public List<TransactionDTO> getUserTransactions(Long userId) {
-        List<Transaction> transactions = transactionRepo.findByUserId(userId);
-        return transactions.stream()
-                .map(t -> new TransactionDTO(
-                        t.getId(),
-                        t.getPayer().getId(),
-                        t.getPayer().getName(),
-                        t.getPayee().getId(),
-                        t.getPayee().getName(),
-                        t.getAmount(),
-                        t.getDate(),
-                        t.getGroup() != null ? t.getGroup().getId() : null,
-                        t.getGroup() != null ? t.getGroup().getName() : null,
-                        t.isSettled(),
-                        t.getDescription()
-                ))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public TransactionPageDTO getUserTransactions(Long userId, String cursor, int limit) {
+        TransactionCursor after = TransactionCursor.decode(cursor);
+        int pageSize = pageSize(limit);
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+
+        // Payer and payee sides are read separately so each can walk its own index,
+        // then merged; an OR across both columns would have to sort the whole history
+        List<TransactionDTO> paid = transactionRepo.findPaidByUserPage(userId, after.date(), after.id(), fetch);
+        List<TransactionDTO> owed = transactionRepo.findOwedByUserPage(userId, after.date(), after.id(), fetch);
+
+        List<TransactionDTO> merged = new ArrayList<>(paid.size() + owed.size());
+        merged.addAll(paid);
+        merged.addAll(owed);
+        merged.sort(NEWEST_FIRST);
+        return toPage(merged, pageSize);
     }
 
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static TransactionPageDTO toPage(List<TransactionDTO> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new TransactionPageDTO(rows, null);
+        }
+        List<TransactionDTO> page = new ArrayList<>(rows.subList(0, pageSize));
+        TransactionDTO last = page.get(page.size() - 1);
+        return new TransactionPageDTO(page, new TransactionCursor(last.getDate(), last.getId()).encode());
+    }
+
+    @Transactional
     public void addFriendExpense(Long userId, Long friendId, FriendExpenseRequest request) {
         User payer = userRepo.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Payer not found"));
@@ -96,47 +186,49 @@ public class TransactionService {
         Transaction transaction = new Transaction();
         transaction.setPayer(payer);
         transaction.setPayee(payee);
-        transaction.setAmount(request.getAmount());
+        transaction.setAmount(Money.of(request.getAmount()));
         transaction.setDescription(request.getDescription());
         transaction.setGroup(null);
         transaction.setSettled(false);
         transaction.setType(Transaction.TransactionType.FRIEND);
         transactionRepo.save(transaction);
+        userBalanceService.recordTransaction(transaction);
     }
 
     public List<FriendExpenseResponse> getFriendTransactions(Long userId, Long friendId) {
-        User user = userRepo.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        User friend = userRepo.findById(friendId)
-                .orElseThrow(() -> new IllegalArgumentException("Friend not found"));
+        if (!userRepo.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        if (!userRepo.existsById(friendId)) {
+            throw new IllegalArgumentException("Friend not found");
+        }
 
-        List<Transaction> transactions = transactionRepo.findByUsersInFriendContext(user, friend);
-
-        return transactions.stream()
-                .map(tx -> new FriendExpenseResponse(
-                        tx.getId(),
-                        tx.getPayer().getId(),
-                        tx.getPayee().getId(),
-                        tx.getPayer().getName(),
-                        tx.getPayee().getName(),
-                        tx.getAmount(),
-                        tx.getDescription(),
-                        tx.getDate(),
-                        tx.isSettled()
-                ))
-                .collect(Collectors.toList());
+        return transactionRepo.findFriendExpenseResponses(userId, friendId);
     }
 
     @Transactional
     public void removeTransaction(Long transactionId){
-        Transaction tx = transactionRepo.findById(transactionId).orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
+        // Locked like a settle, so one that commits first is seen here and the reversal
+        // below skips the row instead of taking it out of the ledgers a second time
+        Transaction tx = transactionRepo.lockById(transactionId).orElseThrow(() -> new IllegalArgumentException("Transaction not found"));
+        groupBalanceService.reverseTransaction(tx);
+        userBalanceService.reverseTransaction(tx);
         transactionRepo.deleteById(transactionId);
+        publishGroupChanges(List.of(tx), GroupChangedEvent.Change.TRANSACTION_REMOVED);
     }
 
+    @Transactional
     public void updateTransaction(Long transactionId, TransactionUpdateDTO transactionUpdateDTO) {
-        Transaction existingTransaction = transactionRepo.findById(transactionId)
+        if (transactionUpdateDTO.getAmount() == null || transactionUpdateDTO.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        Transaction existingTransaction = transactionRepo.lockById(transactionId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        // A settled row is already out of the ledgers, and saving it as edited would
+        // write settled = false back over the settle
+        if (existingTransaction.isSettled()) {
+            throw new IllegalArgumentException("Settled transactions cannot be changed");
+        }
 
         User payee = userRepo.findById(transactionUpdateDTO.getPayeeId())
                 .orElseThrow(() -> new IllegalArgumentException("Payee not found"));
@@ -144,24 +236,44 @@ public class TransactionService {
         User payer = userRepo.findById(transactionUpdateDTO.getPayerId())
                 .orElseThrow(() -> new IllegalArgumentException("Payer not found"));
 
-        existingTransaction.setAmount(transactionUpdateDTO.getAmount());
+        groupBalanceService.reverseTransaction(existingTransaction);
+        userBalanceService.reverseTransaction(existingTransaction);
+
+        existingTransaction.setAmount(Money.of(transactionUpdateDTO.getAmount()));
         existingTransaction.setDescription(transactionUpdateDTO.getDescription());
         existingTransaction.setPayer(payer);
         existingTransaction.setPayee(payee);
 
         Transaction updatedTransaction = transactionRepo.save(existingTransaction);
+        groupBalanceService.recordTransaction(updatedTransaction);
+        userBalanceService.recordTransaction(updatedTransaction);
+        publishGroupChanges(List.of(updatedTransaction), GroupChangedEvent.Change.TRANSACTION_UPDATED);
     }
 
-    public UserSummaryDTO getUserSummary(Long userId) throws Exception {
-        BigDecimal totalOwes = transactionRepo.findTotalOwedByUser(userId);
-        BigDecimal totalOwedTo = transactionRepo.findTotalOwedToUser(userId);
-        BigDecimal netBalance = totalOwedTo.subtract(totalOwes);
+    /**
+     * One event per group touched, in id order since each also bumps the group's version
+     * row; friend transactions have no group.
+     */
+    private void publishGroupChanges(Collection<Transaction> transactions, GroupChangedEvent.Change change) {
+        transactions.stream()
+                .map(Transaction::getGroup)
+                .filter(Objects::nonNull)
+                .map(Group::getId)
+                .distinct()
+                .sorted()
+                .forEach(groupId -> eventPublisher.publishEvent(new GroupChangedEvent(groupId, change)));
+    }
 
-        if (totalOwes == null) {
-            throw new Exception("Error fetching transaction totals for user ID: " + userId);
-        }
+    @Transactional(readOnly = true)
+    public UserSummaryDTO getUserSummary(Long userId) throws Exception {
+        // Same figures as findTotalOwedByUser (payer side) and findTotalOwedToUser
+        // (payee side), read from the running totals instead of summed per request
+        UserBalance balance = userBalanceService.getBalance(userId);
+        BigDecimal totalOwes = balance.getAmountLent().toBigDecimal();
+        BigDecimal totalOwedTo = balance.getAmountOwed().toBigDecimal();
+        BigDecimal netBalance = balance.getAmountOwed().minus(balance.getAmountLent()).toBigDecimal();
 
-        Pageable topFive = (Pageable) PageRequest.of(0, 5);
+        Pageable topFive = PageRequest.of(0, 5);
 
         List<Transaction> transactions = transactionRepo.last5Transactions(userId, topFive);
 
@@ -170,22 +282,26 @@ public class TransactionService {
         }
 
         List<TransactionDTO> transactionDTOs = transactions.stream()
-                .map(tx -> new TransactionDTO(
-                        tx.getId(),
-                        tx.getPayer().getId(),
-                        tx.getPayer().getName(),
-                        tx.getPayee().getId(),
-                        tx.getPayee().getName(),
-                        tx.getAmount(),
-                        tx.getDate(),
-                        tx.getGroup() != null ? tx.getGroup().getId() : null,
-                        tx.getGroup() != null ? tx.getGroup().getName() : null,
-                        tx.isSettled(),
-                        tx.getDescription()
-                ))
+                .map(TransactionService::toDTO)
                 .collect(Collectors.toList());
 
         return new UserSummaryDTO(totalOwes, totalOwedTo, netBalance, transactionDTOs);
     }
 
+    static TransactionDTO toDTO(Transaction tx) {
+        return new TransactionDTO(
+                tx.getId(),
+                tx.getPayer().getId(),
+                tx.getPayer().getName(),
+                tx.getPayee().getId(),
+                tx.getPayee().getName(),
+                tx.getAmount().toBigDecimal(),
+                tx.getDate(),
+                tx.getGroup() != null ? tx.getGroup().getId() : null,
+                tx.getGroup() != null ? tx.getGroup().getName() : null,
+                tx.isSettled(),
+                tx.getDescription()
+        );
+    }
+
 }
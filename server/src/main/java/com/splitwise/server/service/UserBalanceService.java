@@ -0,0 +1,158 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.config.MetricsConfig;
+import com.splitwise.server.model.GroupBalance;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.UserBalance;
+import com.splitwise.server.repo.UserBalanceRepo;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the user_balances totals in step with unsettled transactions. Like
+ * {@link GroupBalanceService}, the write methods must run inside the transaction
+ * that changes the transaction rows, and are called after the group ledger so
+ * every writer takes group_balances locks before user_balances locks.
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class UserBalanceService {
+    private static final String INSERT_MISSING_BALANCE =
+            "INSERT INTO user_balances (user_id, amount_owed, amount_lent) VALUES (?, 0, 0) ON CONFLICT DO NOTHING";
+
+    private final UserBalanceRepo userBalanceRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBalanceService(UserBalanceRepo userBalanceRepo, JdbcTemplate jdbcTemplate) {
+        this.userBalanceRepo = userBalanceRepo;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransaction(Transaction transaction) {
+        applyTransactions(List.of(transaction), false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransactions(Collection<Transaction> transactions) {
+        applyTransactions(transactions, false);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseTransaction(Transaction transaction) {
+        applyTransactions(List.of(transaction), true);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reverseTransactions(Collection<Transaction> transactions) {
+        applyTransactions(transactions, true);
+    }
+
+    /**
+     * Takes a group's ledger rows out of its members' totals, for when every open
+     * transaction in the group is settled at once.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseGroupBalances(Collection<GroupBalance> balances) {
+        Map<Long, Delta> deltas = new TreeMap<>();
+        for (GroupBalance balance : balances) {
+            Delta delta = deltas.computeIfAbsent(balance.getUser().getId(), k -> new Delta());
+            delta.owed = Math.subtractExact(delta.owed, balance.getAmountOwed().getMinorUnits());
+            delta.lent = Math.subtractExact(delta.lent, balance.getAmountLent().getMinorUnits());
+        }
+        applyDeltas(deltas);
+    }
+
+    @Transactional(readOnly = true)
+    public UserBalance getBalance(Long userId) {
+        return userBalanceRepo.findById(userId).orElseGet(() -> new UserBalance(userId));
+    }
+
+    @Transactional
+    public void createBalance(Long userId) {
+        userBalanceRepo.save(new UserBalance(userId));
+    }
+
+    @Transactional
+    public int rebuild() {
+        userBalanceRepo.deleteAllInBatch();
+        return userBalanceRepo.rebuildFromTransactions();
+    }
+
+    /**
+     * Not read-only, so it runs on the primary: on a lagging replica, totals and
+     * transactions written since would show up as drift.
+     */
+    @Transactional
+    public List<Object[]> findDrift() {
+        return userBalanceRepo.findDrift();
+    }
+
+    private void applyTransactions(Collection<Transaction> transactions, boolean reverse) {
+        Map<Long, Delta> deltas = new TreeMap<>();
+        for (Transaction t : transactions) {
+            if (t.isSettled()) {
+                continue;
+            }
+            long amount = reverse ? -t.getAmount().getMinorUnits() : t.getAmount().getMinorUnits();
+
+            Delta payee = deltas.computeIfAbsent(t.getPayee().getId(), k -> new Delta());
+            payee.owed = Math.addExact(payee.owed, amount);
+
+            Delta payer = deltas.computeIfAbsent(t.getPayer().getId(), k -> new Delta());
+            payer.lent = Math.addExact(payer.lent, amount);
+        }
+        applyDeltas(deltas);
+    }
+
+    private void applyDeltas(Map<Long, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<UserBalance> balances = userBalanceRepo.lockByUserIds(deltas.keySet());
+        if (balances.size() < deltas.size()) {
+            insertMissingBalances(deltas.keySet(), balances);
+            balances = userBalanceRepo.lockByUserIds(deltas.keySet());
+        }
+
+        for (UserBalance balance : balances) {
+            Delta delta = deltas.get(balance.getUserId());
+            balance.setAmountOwed(balance.getAmountOwed().plus(Money.ofMinor(delta.owed)));
+            balance.setAmountLent(balance.getAmountLent().plus(Money.ofMinor(delta.lent)));
+        }
+    }
+
+    /**
+     * Rows are created at registration and by the V4 backfill; this covers users inserted
+     * any other way. As in {@link GroupBalanceService}, ON CONFLICT DO NOTHING lets two
+     * first writes for the same user both go ahead instead of one failing on the key.
+     */
+    private void insertMissingBalances(Set<Long> userIds, List<UserBalance> existing) {
+        Set<Long> missing = new TreeSet<>(userIds);
+        for (UserBalance balance : existing) {
+            missing.remove(balance.getUserId());
+        }
+        List<Object[]> rows = new ArrayList<>(missing.size());
+        for (Long userId : missing) {
+            rows.add(new Object[]{userId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MISSING_BALANCE, rows);
+    }
+
+    private static final class Delta {
+        private long owed;
+        private long lent;
+    }
+}
@@ -1,13 +1,16 @@
 package com.splitwise.server.service;
 
+import com.splitwise.server.config.MetricsConfig;
 import com.splitwise.server.model.Group;
 import com.splitwise.server.model.User;
 import com.splitwise.server.model.UserGroup;
 import com.splitwise.server.repo.UserGroupRepo;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserGroupService {
 
     private final UserGroupRepo userGroupRepo;
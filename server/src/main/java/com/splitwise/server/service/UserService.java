@@ -1,6 +1,10 @@
 package com.splitwise.server.service;
+import com.splitwise.server.config.MetricsConfig;
 import com.splitwise.server.model.User;
 import com.splitwise.server.repo.UserRepo;
+import com.splitwise.server.security.AuthenticatedUser;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -8,23 +12,32 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserService implements UserDetailsService {
 
+    private static final Pattern NAME_PATTERN = Pattern.compile("^[a-zA-Z\\s]{2,50}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^\\s@]+@[^\s@]+\\.[^\\s@]+$");
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[\\W_]).{8,}$");
+
     private final UserRepo userRepo;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final UserBalanceService userBalanceService;
 
-    public UserService(UserRepo userRepo, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepo userRepo, PasswordEncoder passwordEncoder, UserCache userCache,
+                       UserBalanceService userBalanceService) {
         this.userRepo = userRepo;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.userBalanceService = userBalanceService;
     }
 
     @Override
-    public User loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepo.findByEmail(email)
+    public AuthenticatedUser loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userRepo.findPrincipalByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
@@ -39,37 +52,40 @@ public class UserService implements UserDetailsService {
 
     @Transactional
     public User registerUser(User user) throws IllegalArgumentException {
+        validateRegistration(user);
+
+        // If validation passes, encrypt the password and save the user
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setRole("ROLE_USER");
+
+        User savedUser = userRepo.save(user);
+        userBalanceService.createBalance(savedUser.getId());
+        evictCachedPrincipal(savedUser.getEmail());
+        return savedUser;
+    }
+
+    static void validateRegistration(User user) {
         // Validate name (2-50 characters, only letters and spaces)
-        String nameRegex = "^[a-zA-Z\\s]{2,50}$";
-        Pattern namePattern = Pattern.compile(nameRegex);
-        Matcher nameMatcher = namePattern.matcher(user.getName());
-        if (!nameMatcher.matches()) {
+        if (!NAME_PATTERN.matcher(user.getName()).matches()) {
             throw new IllegalArgumentException("Name must be 2-50 characters and contain only letters and spaces.");
         }
 
         // Validate email (standard email format)
-        String emailRegex = "^[^\\s@]+@[^\s@]+\\.[^\\s@]+$";
-        Pattern emailPattern = Pattern.compile(emailRegex);
-        Matcher emailMatcher = emailPattern.matcher(user.getEmail());
-        if (!emailMatcher.matches()) {
+        if (!EMAIL_PATTERN.matcher(user.getEmail()).matches()) {
             throw new IllegalArgumentException("Please enter a valid email address.");
         }
 
         // Validate password (at least 8 characters, 1 uppercase, 1 lowercase, 1 digit, 1 special character)
-        String passwordRegex = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[\\W_]).{8,}$";
-        Pattern passwordPattern = Pattern.compile(passwordRegex);
-        Matcher passwordMatcher = passwordPattern.matcher(user.getPassword());
-        if (!passwordMatcher.matches()) {
+        if (!PASSWORD_PATTERN.matcher(user.getPassword()).matches()) {
             throw new IllegalArgumentException(
                     "Password must be at least 8 characters, include uppercase, lowercase, number, and special character."
             );
         }
+    }
 
-        // If validation passes, encrypt the password and save the user
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        user.setRole("ROLE_USER");
-
-        return userRepo.save(user);
+    // Must be called whenever a user's email, name, role or password changes
+    public void evictCachedPrincipal(String email) {
+        userCache.removeUserFromCache(email);
     }
 
     public List<User> getUsersNotInGroup(Long groupId) {
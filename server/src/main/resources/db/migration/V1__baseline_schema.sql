@@ -0,0 +1,76 @@
+-- Schema for a new database. Databases that were created by Hibernate's
+-- ddl-auto=update before migrations existed are baselined at version 1
+-- (spring.flyway.baseline-on-migrate) and brought up to date by V2 instead.
+
+CREATE SEQUENCE expenses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE group_balances_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email    VARCHAR(255) NOT NULL UNIQUE,
+    name     VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role     VARCHAR(255)
+);
+
+CREATE TABLE groups (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE user_group (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id  BIGINT NOT NULL REFERENCES users,
+    group_id BIGINT NOT NULL REFERENCES groups
+);
+
+CREATE TABLE friendships (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT NOT NULL REFERENCES users,
+    friend_id  BIGINT NOT NULL REFERENCES users,
+    created_at TIMESTAMP(6),
+    UNIQUE (user_id, friend_id)
+);
+
+CREATE TABLE expenses (
+    id          BIGINT NOT NULL PRIMARY KEY,
+    amount      NUMERIC(38, 2) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    date        TIMESTAMP(6) NOT NULL,
+    group_id    BIGINT NOT NULL REFERENCES groups,
+    payer_id    BIGINT NOT NULL REFERENCES users,
+    friend_id   BIGINT REFERENCES users
+);
+
+CREATE TABLE expense_users (
+    expense_id BIGINT NOT NULL REFERENCES expenses,
+    user_id    BIGINT NOT NULL REFERENCES users,
+    PRIMARY KEY (expense_id, user_id)
+);
+
+CREATE TABLE transactions (
+    id          BIGINT NOT NULL PRIMARY KEY,
+    payer_id    BIGINT NOT NULL REFERENCES users,
+    payee_id    BIGINT NOT NULL REFERENCES users,
+    group_id    BIGINT REFERENCES groups,
+    amount      NUMERIC(38, 2) NOT NULL,
+    date        TIMESTAMP(6) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    settled     BOOLEAN NOT NULL,
+    type        VARCHAR(255) CHECK (type IN ('GROUP', 'FRIEND'))
+);
+
+CREATE TABLE group_balances (
+    id          BIGINT NOT NULL PRIMARY KEY,
+    group_id    BIGINT NOT NULL REFERENCES groups,
+    user_id     BIGINT NOT NULL REFERENCES users,
+    amount_owed NUMERIC(38, 2) NOT NULL,
+    amount_lent NUMERIC(38, 2) NOT NULL,
+    UNIQUE (group_id, user_id)
+);
+
+-- Keyset pagination over the group and user transaction feeds
+CREATE INDEX idx_transactions_group_date_id ON transactions (group_id, date DESC, id DESC);
+CREATE INDEX idx_transactions_payer_date_id ON transactions (payer_id, date DESC, id DESC);
+CREATE INDEX idx_transactions_payee_date_id ON transactions (payee_id, date DESC, id DESC);
@@ -0,0 +1,29 @@
+-- A no-op on databases created by V1. Databases baselined at version 1 were
+-- built by Hibernate's ddl-auto=update, possibly by a release from before the
+-- group_balances ledger, pooled id sequences and keyset indexes; this brings
+-- them to the same shape. Start the server once with --rebuild-group-balances
+-- afterwards to fill a newly created ledger.
+
+CREATE TABLE IF NOT EXISTS group_balances (
+    id          BIGINT NOT NULL PRIMARY KEY,
+    group_id    BIGINT NOT NULL REFERENCES groups,
+    user_id     BIGINT NOT NULL REFERENCES users,
+    amount_owed NUMERIC(38, 2) NOT NULL,
+    amount_lent NUMERIC(38, 2) NOT NULL,
+    UNIQUE (group_id, user_id)
+);
+
+-- transactions, expenses and group_balances used to take IDENTITY ids. Hibernate
+-- now draws them from pooled sequences (allocationSize = 50), so each sequence
+-- must start past the existing rows.
+CREATE SEQUENCE IF NOT EXISTS transactions_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS expenses_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS group_balances_seq INCREMENT BY 50;
+
+SELECT setval('transactions_seq', MAX(id)) FROM transactions HAVING MAX(id) IS NOT NULL;
+SELECT setval('expenses_seq', MAX(id)) FROM expenses HAVING MAX(id) IS NOT NULL;
+SELECT setval('group_balances_seq', MAX(id)) FROM group_balances HAVING MAX(id) IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_group_date_id ON transactions (group_id, date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_payer_date_id ON transactions (payer_id, date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_payee_date_id ON transactions (payee_id, date DESC, id DESC);
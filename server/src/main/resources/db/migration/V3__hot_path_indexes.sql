@@ -0,0 +1,24 @@
+-- Balances only ever sum unsettled rows, which are a small, shrinking slice of
+-- transactions, so the indexes behind them are partial on NOT settled and carry
+-- the summed columns for index-only scans.
+
+-- getOweDetails (payee + group, grouped by payer), getTotalOwedPerUser and
+-- findTotalOwedToUser (payee prefix)
+CREATE INDEX idx_transactions_unsettled_payee_group
+    ON transactions (payee_id, group_id) INCLUDE (payer_id, amount)
+    WHERE NOT settled;
+
+-- findTotalOwedByUser
+CREATE INDEX idx_transactions_unsettled_payer
+    ON transactions (payer_id) INCLUDE (amount)
+    WHERE NOT settled;
+
+-- settleAllInGroup
+CREATE INDEX idx_transactions_unsettled_group
+    ON transactions (group_id)
+    WHERE NOT settled;
+
+-- Membership lookups; PostgreSQL does not index foreign keys on its own
+CREATE INDEX idx_user_group_group_user ON user_group (group_id, user_id);
+CREATE INDEX idx_user_group_user ON user_group (user_id);
+CREATE INDEX idx_expenses_group ON expenses (group_id);
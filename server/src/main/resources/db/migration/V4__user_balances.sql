@@ -0,0 +1,13 @@
+-- Running totals behind the dashboard summary, kept up to date by UserBalanceService.
+-- Backfilled here from the open transactions (served by the V3 partial indexes).
+CREATE TABLE user_balances (
+    user_id     BIGINT NOT NULL PRIMARY KEY REFERENCES users,
+    amount_owed NUMERIC(38, 2) NOT NULL,
+    amount_lent NUMERIC(38, 2) NOT NULL
+);
+
+INSERT INTO user_balances (user_id, amount_owed, amount_lent)
+SELECT u.id,
+       COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.payee_id = u.id AND NOT t.settled), 0),
+       COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.payer_id = u.id AND NOT t.settled), 0)
+FROM users u;
@@ -0,0 +1,3 @@
+-- Bumped by GroupVersionService in every transaction that changes a group's
+-- transactions, balances or members; group reads use it as their ETag.
+ALTER TABLE groups ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
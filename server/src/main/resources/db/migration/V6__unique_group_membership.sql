@@ -0,0 +1,12 @@
+-- Joining, adding and the membership index all rely on one row per (user, group).
+-- Nothing enforced that before, so drop any duplicates, keeping the oldest row.
+DELETE FROM user_group ug
+USING user_group older
+WHERE older.user_id = ug.user_id
+  AND older.group_id = ug.group_id
+  AND older.id < ug.id;
+
+ALTER TABLE user_group ADD CONSTRAINT uk_user_group_user_group UNIQUE (user_id, group_id);
+
+-- The constraint's index leads with user_id, so it also serves the per-user lookups
+DROP INDEX idx_user_group_user;
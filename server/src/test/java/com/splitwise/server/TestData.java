@@ -0,0 +1,97 @@
+package com.splitwise.server;
+
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import com.splitwise.server.model.UserGroup;
+import com.splitwise.server.repo.GroupRepo;
+import com.splitwise.server.repo.UserGroupRepo;
+import com.splitwise.server.repo.UserRepo;
+import com.splitwise.server.service.UserService;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The users, groups and memberships tests start from. Users are numbered from a prefix,
+ * so {@code groupWithMembers("ledger", 4)} saves ledger0@example.com to ledger3@example.com
+ * in a group named ledger-group.
+ */
+@Component
+public class TestData {
+
+    /** Meets the registration rules, so registered users can log in with it. */
+    public static final String PASSWORD = "Te5t$ecret";
+
+    private final UserService userService;
+    private final UserRepo userRepo;
+    private final GroupRepo groupRepo;
+    private final UserGroupRepo userGroupRepo;
+
+    public TestData(UserService userService, UserRepo userRepo, GroupRepo groupRepo, UserGroupRepo userGroupRepo) {
+        this.userService = userService;
+        this.userRepo = userRepo;
+        this.groupRepo = groupRepo;
+        this.userGroupRepo = userGroupRepo;
+    }
+
+    /** Saves a user straight to the table: the password is not hashed and there is no user_balances row. */
+    public User user(String email) {
+        return userRepo.save(newUser(email));
+    }
+
+    /** Registers a user as the API does, so it has a user_balances row and can log in with {@link #PASSWORD}. */
+    public User register(String email) {
+        return userService.registerUser(newUser(email));
+    }
+
+    public List<User> users(String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(user(email(prefix, i)));
+        }
+        return users;
+    }
+
+    public List<User> registeredUsers(String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(register(email(prefix, i)));
+        }
+        return users;
+    }
+
+    public Group group(String name, Collection<User> members) {
+        Group group = groupRepo.save(new Group(null, name, null, null));
+        for (User member : members) {
+            userGroupRepo.save(new UserGroup(null, member, group));
+        }
+        return group;
+    }
+
+    public GroupWithMembers groupWithMembers(String prefix, int count) {
+        List<User> members = users(prefix, count);
+        return new GroupWithMembers(group(prefix + "-group", members), members);
+    }
+
+    public GroupWithMembers registeredGroupWithMembers(String prefix, int count) {
+        List<User> members = registeredUsers(prefix, count);
+        return new GroupWithMembers(group(prefix + "-group", members), members);
+    }
+
+    public static String email(String prefix, int index) {
+        return prefix + index + "@example.com";
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName("Test User");
+        user.setPassword(PASSWORD);
+        return user;
+    }
+
+    public record GroupWithMembers(Group group, List<User> members) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.splitwise.server.config;
+
+import com.splitwise.server.TestData;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import com.splitwise.server.service.ExpenseService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the real connector, since compression happens in Tomcat rather than in
+ * Spring MVC; shares GroupEventServiceTest's context and database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-events;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE",
+        "spring.jpa.open-in-view=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BinaryEncodingConfigTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private String cookie;
+    private String transactionsPath;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        TestData.GroupWithMembers fixture = testData.registeredGroupWithMembers("encoding", 2);
+        Group group = fixture.group();
+        User payer = fixture.members().get(0);
+        User payee = fixture.members().get(1);
+        for (int i = 0; i < 60; i++) {
+            expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("12.34"), group.getId(),
+                    payer.getId(), Set.of(payee.getId()), "expense " + i));
+        }
+        transactionsPath = "/api/transactions/groups/" + group.getId();
+
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"encoding0@example.com\",\"password\":\"" + TestData.PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String setCookie = login.headers().firstValue("Set-Cookie").orElseThrow();
+        cookie = setCookie.substring(0, setCookie.indexOf(';'));
+    }
+
+    @Test
+    void servesSmileAndCborWhenAskedAndJsonOtherwise() throws Exception {
+        HttpResponse<byte[]> json = get("*/*", null, null);
+        HttpResponse<byte[]> smile = get("application/x-jackson-smile", null, null);
+        HttpResponse<byte[]> cbor = get("application/cbor", null, null);
+
+        assertThat(json.headers().firstValue("Content-Type")).hasValue("application/json");
+        assertThat(smile.headers().firstValue("Content-Type")).hasValue("application/x-jackson-smile");
+        assertThat(cbor.headers().firstValue("Content-Type")).hasValue("application/cbor");
+
+        // Binary formats carry amounts as decimals, so read the JSON ones the same way
+        JsonNode expected = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS).readTree(json.body());
+        assertThat(expected).hasSize(50);
+        assertThat(BinaryEncodingConfig.smileMapper(new Jackson2ObjectMapperBuilder()).readTree(smile.body()))
+                .isEqualTo(expected);
+        assertThat(BinaryEncodingConfig.cborMapper(new Jackson2ObjectMapperBuilder()).readTree(cbor.body()))
+                .isEqualTo(expected);
+        assertThat(smile.body().length).isLessThan(json.body().length / 2);
+    }
+
+    @Test
+    void gzipsLargeResponsesAndKeepsConditionalGetsWorking() throws Exception {
+        HttpResponse<byte[]> plain = get("application/json", null, null);
+        HttpResponse<byte[]> gzipped = get("application/json", "gzip", null);
+
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(gzipped.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.body());
+        }
+
+        String eTag = gzipped.headers().firstValue("ETag").orElseThrow();
+        assertThat(get("application/json", "gzip", eTag).statusCode()).isEqualTo(304);
+    }
+
+    private HttpResponse<byte[]> get(String accept, String acceptEncoding, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(transactionsPath))
+                .header("Cookie", cookie)
+                .header("Accept", accept)
+                .GET();
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
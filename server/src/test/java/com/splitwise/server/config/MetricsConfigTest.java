@@ -0,0 +1,51 @@
+package com.splitwise.server.config;
+
+import com.splitwise.server.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void prometheusScrapeExposesServiceRepositoryHibernateAndPoolMeters() throws Exception {
+        userService.getAllUsers();
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("splitwise_service_seconds_count{class=\"com.splitwise.server.service.UserService\"")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .contains("repository=\"UserRepo\"")
+                .contains("hibernate_statements_total")
+                .contains("hibernate_cache_query_requests_total")
+                .contains("hikaricp_connections_active");
+    }
+
+    @Test
+    void metricsEndpointStillRequiresLogin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+            request.setRemoteAddr("203.0.113.7");
+            return request;
+        })).andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,92 @@
+package com.splitwise.server.config;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import com.splitwise.server.security.AuthenticatedUser;
+import com.splitwise.server.service.ExpenseService;
+import com.splitwise.server.service.GroupService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Both pools point at the same in-memory database, standing in for a primary and its
+ * replica; which one served a call is read from the routing counters.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-routing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE",
+        "splitwise.datasource.replica.url=jdbc:h2:mem:replica-routing;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE",
+        "splitwise.datasource.replica.read-your-writes=1s"
+})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyCallsUseTheReplicaExceptRightAfterTheCallersOwnWrite() throws Exception {
+        TestData.GroupWithMembers fixture = testData.registeredGroupWithMembers("routing", 2);
+        Group group = fixture.group();
+        User writer = fixture.members().get(0);
+        User reader = fixture.members().get(1);
+
+        signIn(reader);
+        assertThat(servedBy(() -> groupService.getGroupById(group.getId()))).isEqualTo("replica");
+
+        signIn(writer);
+        expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("30.00"), group.getId(),
+                writer.getId(), Set.of(reader.getId()), "groceries"));
+        assertThat(servedBy(() -> groupService.getGroupById(group.getId()))).isEqualTo("primary");
+
+        // Only the writer is pinned to the primary
+        signIn(reader);
+        assertThat(servedBy(() -> groupService.getGroupById(group.getId()))).isEqualTo("replica");
+
+        Thread.sleep(1200);
+        signIn(writer);
+        assertThat(servedBy(() -> groupService.getGroupById(group.getId()))).isEqualTo("replica");
+    }
+
+    private String servedBy(Runnable call) {
+        double primary = routed("primary");
+        double replica = routed("replica");
+        call.run();
+        assertThat(routed("primary") - primary + routed("replica") - replica).isEqualTo(1);
+        return routed("primary") > primary ? "primary" : "replica";
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get("db.routing.connections").tag("target", target).counter().count();
+    }
+
+    private static void signIn(User user) {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getName(), "ROLE_USER", null);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.splitwise.server.load;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.model.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures authenticated requests/sec against GET /api/groups for one auth mode.
+ * Tune with -Dload.requests and -Dload.concurrency.
+ */
+@Tag("load")
+abstract class AuthModeLoadTestSupport {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+
+    protected final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    protected abstract String mode();
+
+    /**
+     * Logs in and returns the header (name, value) that authenticates later requests.
+     */
+    protected abstract String[] credentials(HttpResponse<String> loginResponse) throws Exception;
+
+    @Test
+    void authenticatedThroughput() throws Exception {
+        User user = testData.register("load-" + mode() + "@example.com");
+
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + TestData.PASSWORD + "\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(login.statusCode()).isEqualTo(200);
+        String[] header = credentials(login);
+        HttpRequest request = HttpRequest.newBuilder(uri("/api/groups")).header(header[0], header[1]).GET().build();
+
+        run(request, REQUESTS / 4);
+        long start = System.nanoTime();
+        run(request, REQUESTS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("[%s mode] %d requests, concurrency %d: %.0f req/s%n",
+                mode(), REQUESTS, CONCURRENCY, REQUESTS / seconds);
+    }
+
+    private void run(HttpRequest request, int total) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<Integer>> failures = new ArrayList<>();
+            for (int worker = 0; worker < CONCURRENCY; worker++) {
+                failures.add(executor.submit(() -> {
+                    int failed = 0;
+                    for (int i = 0; i < total / CONCURRENCY; i++) {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failed++;
+                        }
+                    }
+                    return failed;
+                }));
+            }
+            for (Future<Integer> failed : failures) {
+                assertThat(failed.get()).isZero();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
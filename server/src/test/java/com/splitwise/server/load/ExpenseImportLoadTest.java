@@ -0,0 +1,156 @@
+package com.splitwise.server.load;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.model.Group;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams a generated CSV of -Dload.importRows expenses (default 100k) through
+ * {@code POST /api/expenses/import} and reports rows/s and peak heap. The file is
+ * produced on the fly, so neither side ever holds it whole.
+ * <p>
+ * Run with {@code mvn test -Pload-test -Dtest=ExpenseImportLoadTest}. Against H2 the
+ * imported rows themselves live on the heap, so point -Dload.datasource.url at a
+ * scratch Postgres database (schema dropped and recreated) for a meaningful heap
+ * figure; -Dload.maxHeapMb then fails the run if the peak exceeds it.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ExpenseImportLoadTest {
+
+    private static final int ROWS = Integer.getInteger("load.importRows", 100_000);
+    private static final int GROUP_SIZE = 4;
+    private static final Long MAX_HEAP_MB = Long.getLong("load.maxHeapMb");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("load.datasource.url",
+                "jdbc:h2:mem:load-import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE"));
+        if (System.getProperty("load.datasource.url") != null) {
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.datasource.username", () -> System.getProperty("load.datasource.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("load.datasource.password", ""));
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void importsLargeCsvInConstantMemory() throws Exception {
+        Group group = testData.registeredGroupWithMembers("import", GROUP_SIZE).group();
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"import0@example.com\",\"password\":\"" + TestData.PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String cookie = login.headers().firstValue("Set-Cookie").orElseThrow();
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/api/expenses/import"))
+                .header("Cookie", cookie.substring(0, cookie.indexOf(';')))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new GeneratedCsv(group.getId(), ROWS)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+
+        long peakMb = peakHeap.get() / (1024 * 1024);
+        System.out.printf("[import] %d rows in %.1f s: %.0f rows/s, peak heap %d MB%n",
+                ROWS, seconds, ROWS / seconds, peakMb);
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+        assertThat(response.body()).contains("\"imported\":" + ROWS, "\"failed\":0");
+        if (MAX_HEAP_MB != null) {
+            assertThat(peakMb).as("peak heap (MB)").isLessThanOrEqualTo(MAX_HEAP_MB);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static final class GeneratedCsv extends InputStream {
+        private final long groupId;
+        private final int rows;
+        private int row = -1;
+        private byte[] line = new byte[0];
+        private int position;
+
+        GeneratedCsv(long groupId, int rows) {
+            this.groupId = groupId;
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            return line[position++];
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == line.length && !nextLine()) {
+                return -1;
+            }
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean nextLine() {
+            if (row == rows) {
+                return false;
+            }
+            String text = row < 0
+                    ? "groupId,payer,amount,description,date,sharedWith\n"
+                    : groupId + ",import" + (row % GROUP_SIZE) + "@example.com,40.00,imported " + row
+                    + ",2024-01-01,import0@example.com;import1@example.com;import2@example.com;import3@example.com\n";
+            row++;
+            line = text.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.splitwise.server.load;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import com.splitwise.server.service.ExpenseService;
+import com.splitwise.server.service.GroupEventService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Holds -Dload.sseClients open streams on one group (default 5000), then adds an expense
+ * and reports how long the event takes to reach every stream, together with the heap per
+ * open stream and the threads added. Client and server share the JVM, so both figures
+ * include the client side; the threads are the request and client pools growing during
+ * the connect burst, not one per stream. Run with {@code mvn test -Pload-test -Dtest=GroupEventsLoadTest};
+ * each stream uses two file descriptors here, so raise {@code ulimit -n} for large counts.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties =
+        "spring.datasource.url=jdbc:h2:mem:load-events;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE")
+class GroupEventsLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.sseClients", 5000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupEventService groupEventService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void fansOutToManyIdleStreams() throws Exception {
+        TestData.GroupWithMembers fixture = testData.registeredGroupWithMembers("events", 2);
+        Group group = fixture.group();
+        List<User> members = fixture.members();
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"events0@example.com\",\"password\":\"" + TestData.PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String cookie = login.headers().firstValue("Set-Cookie").orElseThrow();
+        HttpRequest subscribe = HttpRequest.newBuilder(uri("/api/groups/" + group.getId() + "/events"))
+                .header("Cookie", cookie.substring(0, cookie.indexOf(';')))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+
+        long heapBefore = usedHeapAfterGc();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        CountDownLatch received = new CountDownLatch(CLIENTS);
+        List<CompletableFuture<HttpResponse<Void>>> streams = new ArrayList<>();
+        long openStart = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            streams.add(client.sendAsync(subscribe, HttpResponse.BodyHandlers.fromLineSubscriber(new DataLines(received))));
+        }
+        long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(2);
+        while (groupEventService.getSubscriberCount() < CLIENTS && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        double openSeconds = (System.nanoTime() - openStart) / 1e9;
+        assertThat(groupEventService.getSubscriberCount()).isEqualTo(CLIENTS);
+
+        long heapPerStream = (usedHeapAfterGc() - heapBefore) / CLIENTS;
+        int threadsAdded = ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore;
+
+        long publishStart = System.nanoTime();
+        expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("10.00"), group.getId(),
+                members.get(0).getId(), Set.of(members.get(1).getId()), "fan-out"));
+        boolean all = received.await(1, TimeUnit.MINUTES);
+        double fanOutMs = (System.nanoTime() - publishStart) / 1e6;
+
+        System.out.printf("[events] %d streams opened in %.1f s; ~%d bytes heap per stream, %d threads added;"
+                        + " event reached all streams in %.0f ms%n",
+                CLIENTS, openSeconds, heapPerStream, threadsAdded, fanOutMs);
+        assertThat(all).as("event delivered to every stream").isTrue();
+
+        groupEventService.completeAll();
+        streams.forEach(stream -> stream.join());
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        System.gc();
+        Thread.sleep(200);
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static final class DataLines implements Flow.Subscriber<String> {
+        private final CountDownLatch received;
+
+        private DataLines(CountDownLatch received) {
+            this.received = received;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("data:")) {
+                received.countDown();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
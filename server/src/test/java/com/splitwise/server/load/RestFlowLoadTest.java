@@ -0,0 +1,273 @@
+package com.splitwise.server.load;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import com.splitwise.server.repo.TransactionRepo;
+import com.splitwise.server.service.ExpenseService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays the main user flows over HTTP and reports p50/p99 latency and throughput per endpoint.
+ * Each worker is its own seeded user: it logs in, then repeatedly lists its groups, opens one,
+ * adds an expense, settles a transaction and loads its dashboard summary.
+ * <p>
+ * Run with {@code mvn test -Pload-test -Dtest=RestFlowLoadTest}. Tune with -Dload.concurrency,
+ * -Dload.iterations (per worker), -Dload.sessionLength (iterations between logins) and
+ * -Dload.groupSize. Setting -Dload.maxP99Ms fails the run when any endpoint's p99 exceeds it.
+ * Runs against H2 in PostgreSQL mode unless -Dload.datasource.url (plus .username/.password)
+ * points at a scratch Postgres database; the schema there is dropped and recreated.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RestFlowLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 200);
+    private static final int SESSION_LENGTH = Integer.getInteger("load.sessionLength", 50);
+    private static final int GROUP_SIZE = Integer.getInteger("load.groupSize", 8);
+    private static final Long MAX_P99_MS = Long.getLong("load.maxP99Ms");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("load.datasource.url",
+                "jdbc:h2:mem:load-flows;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE"));
+        if (System.getProperty("load.datasource.url") != null) {
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.datasource.username", () -> System.getProperty("load.datasource.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("load.datasource.password", ""));
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final Queue<Long> unsettled = new ConcurrentLinkedQueue<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Test
+    void restFlows() throws Exception {
+        List<Worker> workers = seed();
+
+        run(workers, ITERATIONS / 4);
+        latencies.clear();
+        assertThat(failures.getAndSet(0)).as("failed requests during warm-up").isZero();
+
+        long start = System.nanoTime();
+        run(workers, ITERATIONS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        report(seconds);
+        assertThat(failures.get()).as("failed requests").isZero();
+        if (MAX_P99_MS != null) {
+            latencies.forEach((endpoint, samples) ->
+                    assertThat(percentile(sorted(samples), 99) / 1_000_000)
+                            .as("p99 of %s (ms)", endpoint)
+                            .isLessThanOrEqualTo(MAX_P99_MS));
+        }
+    }
+
+    private List<Worker> seed() {
+        List<User> users = testData.registeredUsers("flow", CONCURRENCY);
+
+        List<Worker> workers = new ArrayList<>();
+        int groupCount = (CONCURRENCY + GROUP_SIZE - 1) / GROUP_SIZE;
+        for (int g = 0; g < groupCount; g++) {
+            List<User> members = users.subList(g * GROUP_SIZE, Math.min(users.size(), (g + 1) * GROUP_SIZE));
+            Group group = testData.group("flow-group-" + g, members);
+            Set<Long> memberIds = new HashSet<>();
+            for (User member : members) {
+                memberIds.add(member.getId());
+            }
+            for (User member : members) {
+                workers.add(new Worker(member, group.getId(), memberIds));
+            }
+        }
+
+        // Enough open transactions that every settle call in warm-up and measurement finds one
+        int settles = CONCURRENCY * (ITERATIONS + ITERATIONS / 4);
+        int seeded = 0;
+        while (seeded < settles) {
+            for (Worker worker : workers) {
+                if (worker.memberIds.size() > 1) {
+                    expenseService.addExpense(worker.expense("seed"));
+                    seeded += worker.memberIds.size() - 1;
+                }
+            }
+        }
+        transactionRepo.findAll().stream()
+                .filter(tx -> !tx.isSettled())
+                .map(Transaction::getId)
+                .forEach(unsettled::add);
+        return workers;
+    }
+
+    private void run(List<Worker> workers, int iterations) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (Worker worker : workers) {
+                running.add(executor.submit(() -> {
+                    for (int i = 0; i < iterations; i++) {
+                        if (i % SESSION_LENGTH == 0) {
+                            worker.login();
+                        }
+                        worker.iterate();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void report(double seconds) {
+        int total = latencies.values().stream().mapToInt(Queue::size).sum();
+        System.out.printf("[rest flows] %d workers x %d iterations, %d requests in %.1f s: %.0f req/s%n",
+                CONCURRENCY, ITERATIONS, total, seconds, total / seconds);
+        System.out.printf("%-36s %8s %10s %10s %10s%n", "endpoint", "count", "req/s", "p50 ms", "p99 ms");
+        new TreeMap<>(latencies).forEach((endpoint, samples) -> {
+            long[] sorted = sorted(samples);
+            System.out.printf("%-36s %8d %10.0f %10.2f %10.2f%n", endpoint, sorted.length, sorted.length / seconds,
+                    percentile(sorted, 50) / 1e6, percentile(sorted, 99) / 1e6);
+        });
+    }
+
+    private static long[] sorted(Queue<Long> samples) {
+        long[] values = samples.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private final class Worker {
+        private final User user;
+        private final Long groupId;
+        private final Set<Long> memberIds;
+        private String cookie;
+
+        Worker(User user, Long groupId, Set<Long> memberIds) {
+            this.user = user;
+            this.groupId = groupId;
+            this.memberIds = memberIds;
+        }
+
+        void login() throws Exception {
+            HttpResponse<String> response = send("POST /api/auth/login", HttpRequest.newBuilder(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + TestData.PASSWORD + "\"}")));
+            String setCookie = response.headers().firstValue("Set-Cookie").orElseThrow();
+            cookie = setCookie.substring(0, setCookie.indexOf(';'));
+        }
+
+        void iterate() throws Exception {
+            send("GET /api/groups", authenticated("/api/groups").GET());
+            send("GET /api/groups/{id}", authenticated("/api/groups/" + groupId).GET());
+            if (memberIds.size() > 1) {
+                send("POST /api/expenses", authenticated("/api/expenses")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(expenseJson())));
+            }
+            Long transactionId = unsettled.poll();
+            if (transactionId != null) {
+                send("PUT /api/transactions/{id}/settle",
+                        authenticated("/api/transactions/" + transactionId + "/settle")
+                                .PUT(HttpRequest.BodyPublishers.noBody()));
+            }
+            send("GET /api/transactions/{id}/summary",
+                    authenticated("/api/transactions/" + user.getId() + "/summary").GET());
+        }
+
+        ExpenseRequestDTO expense(String description) {
+            ExpenseRequestDTO request = new ExpenseRequestDTO();
+            request.setAmount(new BigDecimal("84.00"));
+            request.setGroupId(groupId);
+            request.setPayerId(user.getId());
+            request.setSharedWithUserIds(memberIds);
+            request.setDescription(description);
+            return request;
+        }
+
+        private String expenseJson() {
+            StringBuilder shared = new StringBuilder();
+            for (Long id : memberIds) {
+                shared.append(shared.isEmpty() ? "" : ",").append(id);
+            }
+            return "{\"amount\":84.00,\"groupId\":" + groupId + ",\"payerId\":" + user.getId()
+                    + ",\"sharedWithUserIds\":[" + shared + "],\"description\":\"load\"}";
+        }
+
+        private HttpRequest.Builder authenticated(String path) {
+            return HttpRequest.newBuilder(uri(path)).header("Cookie", cookie);
+        }
+
+        private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) throws Exception {
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            latencies.computeIfAbsent(endpoint, key -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+            if (response.statusCode() / 100 != 2) {
+                if (failures.getAndIncrement() == 0) {
+                    System.out.printf("[rest flows] %s -> %d %s%n", endpoint, response.statusCode(), response.body());
+                }
+            }
+            return response;
+        }
+    }
+}
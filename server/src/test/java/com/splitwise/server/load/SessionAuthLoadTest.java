@@ -0,0 +1,22 @@
+package com.splitwise.server.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.http.HttpResponse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-session;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE"
+})
+class SessionAuthLoadTest extends AuthModeLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "session";
+    }
+
+    @Override
+    protected String[] credentials(HttpResponse<String> loginResponse) {
+        String cookie = loginResponse.headers().firstValue("Set-Cookie").orElseThrow();
+        return new String[]{"Cookie", cookie.substring(0, cookie.indexOf(';'))};
+    }
+}
@@ -0,0 +1,25 @@
+package com.splitwise.server.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.http.HttpResponse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-token;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE",
+        "splitwise.auth.mode=token",
+        "splitwise.auth.token.secret=load-test-secret-that-is-at-least-32-bytes"
+})
+class TokenAuthLoadTest extends AuthModeLoadTestSupport {
+
+    @Override
+    protected String mode() {
+        return "token";
+    }
+
+    @Override
+    protected String[] credentials(HttpResponse<String> loginResponse) throws Exception {
+        String token = new ObjectMapper().readTree(loginResponse.body()).get("accessToken").asText();
+        return new String[]{"Authorization", "Bearer " + token};
+    }
+}
@@ -0,0 +1,151 @@
+package com.splitwise.server.load;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.model.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports a seeded history of -Dload.exportRows transactions (default 200k) through
+ * {@code GET /api/transactions/users/{id}/export} and reports time to first byte, rows/s
+ * and peak heap. Run with {@code mvn test -Pload-test -Dtest=TransactionExportLoadTest};
+ * as with the import test, -Dload.datasource.url pointing at a scratch Postgres database
+ * keeps the seeded rows off the heap, and -Dload.maxHeapMb bounds the peak. The seeded
+ * user owns every row, so Postgres may plan a sort instead of walking the user's index;
+ * the time to first byte then includes that sort, which a real user's slice would not need.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TransactionExportLoadTest {
+
+    private static final int ROWS = Integer.getInteger("load.exportRows", 200_000);
+    private static final Long MAX_HEAP_MB = Long.getLong("load.maxHeapMb");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("load.datasource.url",
+                "jdbc:h2:mem:load-export;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE"));
+        if (System.getProperty("load.datasource.url") != null) {
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.datasource.username", () -> System.getProperty("load.datasource.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("load.datasource.password", ""));
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportsLargeHistoryInConstantMemory() throws Exception {
+        List<User> users = testData.registeredUsers("export", 2);
+        User exporter = users.get(0);
+        User friend = users.get(1);
+        seed(exporter.getId(), friend.getId());
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"export0@example.com\",\"password\":\"" + TestData.PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String cookie = login.headers().firstValue("Set-Cookie").orElseThrow();
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(
+                HttpRequest.newBuilder(uri("/api/transactions/users/" + exporter.getId() + "/export?format=csv"))
+                        .header("Cookie", cookie.substring(0, cookie.indexOf(';')))
+                        .GET()
+                        .build(), HttpResponse.BodyHandlers.ofInputStream());
+        long lines = 0;
+        long firstByte = 0;
+        try (InputStream body = response.body()) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (firstByte == 0) {
+                    firstByte = System.nanoTime() - start;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.interrupt();
+
+        long peakMb = peakHeap.get() / (1024 * 1024);
+        System.out.printf("[export] %d rows in %.1f s: %.0f rows/s, first byte after %.0f ms, peak heap %d MB%n",
+                ROWS, seconds, ROWS / seconds, firstByte / 1e6, peakMb);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(lines).isEqualTo(ROWS + 1);
+        if (MAX_HEAP_MB != null) {
+            assertThat(peakMb).as("peak heap (MB)").isLessThanOrEqualTo(MAX_HEAP_MB);
+        }
+    }
+
+    private void seed(Long userId, Long friendId) {
+        // Ids well above anything the sequence hands out during the test
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            boolean paid = i % 2 == 0;
+            batch.add(new Object[]{1_000_000_000L + i, paid ? userId : friendId, paid ? friendId : userId,
+                    "12.50", Timestamp.valueOf(start.plusMinutes(i)), "seeded " + i});
+            if (batch.size() == 10_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO transactions (id, payer_id, payee_id, amount, date, description, "
+                        + "settled, type) VALUES (?, ?, ?, CAST(? AS NUMERIC), ?, ?, false, 'FRIEND')", batch);
+                batch.clear();
+            }
+        }
+        if (System.getProperty("load.datasource.url") != null) {
+            // Fresh statistics, as autovacuum would have, so the planner walks the indexes
+            jdbcTemplate.execute("ANALYZE transactions");
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
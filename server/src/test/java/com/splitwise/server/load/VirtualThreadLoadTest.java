@@ -0,0 +1,21 @@
+package com.splitwise.server.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Same workload as {@link SessionAuthLoadTest} with the "virtual" profile, for comparing
+ * against the platform-thread default. Raise -Dload.concurrency well past the pool size
+ * to see the difference.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-virtual;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE"
+})
+@ActiveProfiles("virtual")
+class VirtualThreadLoadTest extends SessionAuthLoadTest {
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,48 @@
+package com.splitwise.server.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void roundsToTheMinorUnitLikeTheAmountColumns() {
+        assertThat(Money.of(new BigDecimal("10.005")).getMinorUnits()).isEqualTo(1001);
+        assertThat(Money.of(new BigDecimal("-10.005")).getMinorUnits()).isEqualTo(-1001);
+        assertThat(Money.of(new BigDecimal("7")).toBigDecimal()).isEqualTo(new BigDecimal("7.00"));
+        assertThat(Money.of(new BigDecimal("12.50"))).isEqualTo(Money.ofMinor(1250));
+    }
+
+    @Test
+    void addsAndSubtractsInMinorUnits() {
+        Money total = Money.of(new BigDecimal("0.10")).plus(Money.of(new BigDecimal("0.20")));
+
+        assertThat(total).isEqualTo(Money.of(new BigDecimal("0.30")));
+        assertThat(total.minus(Money.ofMinor(30)).isZero()).isTrue();
+        assertThat(Money.ofMinor(5).negate().signum()).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsMixedCurrenciesAndOverflow() {
+        Money rupees = Money.ofMinor(100);
+        Money dollars = Money.ofMinor(100, Currency.getInstance("USD"));
+
+        assertThatThrownBy(() -> rupees.plus(dollars)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("1e20"))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsAndWritesJsonAsAPlainNumber() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertThat(mapper.writeValueAsString(Money.of(new BigDecimal("42.50")))).isEqualTo("42.50");
+        assertThat(mapper.readValue("42.5", Money.class)).isEqualTo(Money.ofMinor(4250));
+    }
+}
@@ -0,0 +1,126 @@
+package com.splitwise.server.repo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real PostgreSQL and checks that the balance queries are
+ * planned on the partial indexes from V3. Needs a database it may create a scratch schema in:
+ * {@code mvn test -Dtest=HotPathIndexPlanTest -Dtest.postgres.url=jdbc:postgresql://localhost:5432/postgres}
+ * (plus -Dtest.postgres.username / -Dtest.postgres.password).
+ */
+@EnabledIfSystemProperty(named = "test.postgres.url", matches = ".+")
+class HotPathIndexPlanTest {
+
+    private static final String SCHEMA = "index_plan_test";
+
+    private static Flyway flyway;
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        String url = System.getProperty("test.postgres.url");
+        String username = System.getProperty("test.postgres.username", "postgres");
+        String password = System.getProperty("test.postgres.password", "");
+
+        flyway = Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        connection = DriverManager.getConnection(url, username, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA);
+            // 2,000 users in 200 groups of 10; 200,000 transactions of which 95% are settled
+            statement.execute("""
+                    INSERT INTO users (email, name, password, role)
+                    SELECT 'user' || i || '@example.com', 'User ' || i, 'hash', 'ROLE_USER'
+                    FROM generate_series(1, 2000) i""");
+            statement.execute("INSERT INTO groups (name) SELECT 'group ' || i FROM generate_series(1, 200) i");
+            statement.execute("INSERT INTO user_group (user_id, group_id) SELECT id, (id - 1) / 10 + 1 FROM users");
+            statement.execute("""
+                    INSERT INTO transactions (id, payer_id, payee_id, group_id, amount, date, description, settled, type)
+                    SELECT i,
+                           (i % 2000) + 1,
+                           ((i % 2000) / 10) * 10 + ((i / 2000) % 9 + (i % 10) + 1) % 10 + 1,
+                           (i % 2000) / 10 + 1,
+                           (i % 500) + 0.25,
+                           TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute',
+                           'expense',
+                           i % 20 <> 0,
+                           'GROUP'
+                    FROM generate_series(1, 200000) i""");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+        if (flyway != null) {
+            flyway.clean();
+        }
+    }
+
+    @Test
+    void oweDetailsUseUnsettledPayeeGroupIndex() throws SQLException {
+        assertThat(explain("""
+                SELECT SUM(t.amount), t.payer_id, u.name
+                FROM transactions t JOIN users u ON t.payer_id = u.id
+                WHERE t.payee_id = 15 AND t.group_id = 2 AND t.settled = false
+                GROUP BY t.payer_id, u.name"""))
+                .contains("idx_transactions_unsettled_payee_group");
+    }
+
+    @Test
+    void totalOwedToUserUsesUnsettledPayeeGroupIndex() throws SQLException {
+        assertThat(explain("SELECT COALESCE(SUM(t.amount), 0) FROM transactions t WHERE t.payee_id = 15 AND t.settled = false"))
+                .contains("idx_transactions_unsettled_payee_group");
+    }
+
+    @Test
+    void totalOwedByUserUsesUnsettledPayerIndex() throws SQLException {
+        assertThat(explain("SELECT COALESCE(SUM(t.amount), 0) FROM transactions t WHERE t.payer_id = 15 AND t.settled = false"))
+                .contains("idx_transactions_unsettled_payer");
+    }
+
+    @Test
+    void transactionsOfUserCombinePayerAndPayeeIndexes() throws SQLException {
+        assertThat(explain("SELECT t.* FROM transactions t WHERE t.payee_id = 15 OR t.payer_id = 15"))
+                .contains("BitmapOr")
+                .doesNotContain("Seq Scan on transactions");
+    }
+
+    @Test
+    void settleAllInGroupUsesUnsettledGroupIndex() throws SQLException {
+        assertThat(explain("UPDATE transactions SET settled = true WHERE group_id = 7 AND settled = false"))
+                .contains("idx_transactions_unsettled_group");
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
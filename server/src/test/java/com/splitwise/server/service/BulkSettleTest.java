@@ -0,0 +1,149 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.BulkSettleRequest;
+import com.splitwise.server.dto.BulkSettleResponse;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.dto.FriendExpenseRequest;
+import com.splitwise.server.dto.TransactionUpdateDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import com.splitwise.server.repo.GroupBalanceRepo;
+import com.splitwise.server.repo.TransactionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class BulkSettleTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserBalanceService userBalanceService;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private GroupBalanceRepo groupBalanceRepo;
+
+    @Autowired
+    private TestData testData;
+
+    private Group group;
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        TestData.GroupWithMembers fixture = testData.groupWithMembers("bulk", 3);
+        group = fixture.group();
+        members = fixture.members();
+        expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("60.00"), group.getId(),
+                members.get(0).getId(), Set.of(members.get(1).getId(), members.get(2).getId()), "dinner"));
+        expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("40.00"), group.getId(),
+                members.get(1).getId(), Set.of(members.get(0).getId(), members.get(2).getId()), "taxi"));
+    }
+
+    @Test
+    void settlesEveryScopeAndKeepsTheLedgersInStep() {
+        FriendExpenseRequest friendExpense = new FriendExpenseRequest();
+        friendExpense.setAmount(new BigDecimal("15.00"));
+        friendExpense.setDescription("coffee");
+        transactionService.addFriendExpense(members.get(0).getId(), members.get(2).getId(), friendExpense);
+        transactionService.addFriendExpense(members.get(2).getId(), members.get(0).getId(), friendExpense);
+
+        BulkSettleRequest pair = new BulkSettleRequest();
+        pair.setFriendId(members.get(2).getId());
+        BulkSettleResponse response = transactionService.settleTransactions(pair, members.get(0).getId());
+        assertThat(response.getSettled()).isEqualTo(2);
+        assertLedgersMatchTransactions();
+
+        BulkSettleRequest groupScope = new BulkSettleRequest();
+        groupScope.setUserId(members.get(2).getId());
+        groupScope.setGroupId(group.getId());
+        response = transactionService.settleTransactions(groupScope, members.get(0).getId());
+        assertThat(response.getSettled()).isEqualTo(2);
+        assertThat(response.getTotalOwes()).isEqualByComparingTo(transactionRepo.findTotalOwedByUser(members.get(2).getId()));
+        assertThat(response.getTotalOwedTo()).isEqualByComparingTo("0");
+        assertLedgersMatchTransactions();
+
+        List<Long> ids = transactionRepo.findByGroupId(group.getId()).stream().map(Transaction::getId).toList();
+        BulkSettleRequest byIds = new BulkSettleRequest();
+        byIds.setIds(ids);
+        response = transactionService.settleTransactions(byIds, members.get(1).getId());
+        assertThat(response.getSettled()).isEqualTo(2);
+        assertThat(response.getNetBalance()).isEqualByComparingTo("0");
+        assertLedgersMatchTransactions();
+
+        // Already settled rows are skipped rather than reversed out of the ledgers again
+        assertThat(transactionService.settleTransactions(byIds, members.get(1).getId()).getSettled()).isZero();
+        transactionService.settleTransaction(ids.get(0));
+        assertLedgersMatchTransactions();
+    }
+
+    @Test
+    void settledRowsAreNotEditedOrReversedAgain() {
+        List<Transaction> transactions = transactionRepo.findByGroupId(group.getId());
+        Transaction settled = transactions.get(0);
+        transactionService.settleTransaction(settled.getId());
+
+        TransactionUpdateDTO update = new TransactionUpdateDTO();
+        update.setAmount(new BigDecimal("99.00"));
+        update.setPayerId(settled.getPayer().getId());
+        update.setPayeeId(settled.getPayee().getId());
+        assertThatThrownBy(() -> transactionService.updateTransaction(settled.getId(), update))
+                .isInstanceOf(IllegalArgumentException.class);
+        update.setAmount(null);
+        assertThatThrownBy(() -> transactionService.updateTransaction(transactions.get(1).getId(), update))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        transactionService.removeTransaction(settled.getId());
+        assertThat(transactionRepo.findById(settled.getId())).isEmpty();
+        assertLedgersMatchTransactions();
+    }
+
+    @Test
+    void rejectsAmbiguousScopes() {
+        BulkSettleRequest request = new BulkSettleRequest();
+        request.setFriendId(members.get(1).getId());
+        request.setGroupId(group.getId());
+        assertThatThrownBy(() -> transactionService.settleTransactions(request, members.get(0).getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        BulkSettleRequest empty = new BulkSettleRequest();
+        assertThatThrownBy(() -> transactionService.settleTransactions(empty, members.get(0).getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertLedgersMatchTransactions() {
+        assertThat(userBalanceService.findDrift()).isEmpty();
+        assertThat(toMap(groupBalanceRepo.getTotalOwedPerUser(group.getId())))
+                .isEqualTo(toMap(transactionRepo.getTotalOwedPerUser(group.getId())));
+    }
+
+    private static Map<Long, BigDecimal> toMap(List<Object[]> rows) {
+        Map<Long, BigDecimal> result = new TreeMap<>();
+        for (Object[] row : rows) {
+            result.put(((Number) row[0]).longValue(), ((BigDecimal) row[2]).stripTrailingZeros());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,69 @@
+package com.splitwise.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DebtSimplifierTest {
+
+    @Test
+    void settlesChainWithSinglePayment() {
+        // A owes B 10, B owes C 10: A pays C directly
+        List<DebtSimplifier.Payment> payments = DebtSimplifier.simplify(new long[]{-1000, 0, 1000});
+
+        assertThat(payments).containsExactly(new DebtSimplifier.Payment(0, 2, 1000));
+    }
+
+    @Test
+    void matchesLargestCreditorWithLargestDebtor() {
+        List<DebtSimplifier.Payment> payments = DebtSimplifier.simplify(new long[]{3000, -2500, 500, -1000});
+
+        assertThat(payments).containsExactly(
+                new DebtSimplifier.Payment(1, 0, 2500),
+                new DebtSimplifier.Payment(3, 0, 500),
+                new DebtSimplifier.Payment(3, 2, 500)
+        );
+    }
+
+    @Test
+    void rejectsUnbalancedPositions() {
+        assertThatThrownBy(() -> DebtSimplifier.simplify(new long[]{100, -99}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void settlesTenThousandMembers() {
+        long[] nets = randomBalancedPositions(10_000, 42);
+
+        List<DebtSimplifier.Payment> payments = DebtSimplifier.simplify(nets);
+
+        assertThat(payments.size()).isLessThan(nets.length);
+        assertSettlesEveryone(nets, payments);
+    }
+
+    private static long[] randomBalancedPositions(int members, long seed) {
+        Random random = new Random(seed);
+        long[] nets = new long[members];
+        long sum = 0;
+        for (int i = 0; i < members - 1; i++) {
+            nets[i] = random.nextLong(-500_000, 500_000);
+            sum += nets[i];
+        }
+        nets[members - 1] = -sum;
+        return nets;
+    }
+
+    private static void assertSettlesEveryone(long[] nets, List<DebtSimplifier.Payment> payments) {
+        long[] remaining = nets.clone();
+        for (DebtSimplifier.Payment payment : payments) {
+            assertThat(payment.amount()).isPositive();
+            remaining[payment.from()] += payment.amount();
+            remaining[payment.to()] -= payment.amount();
+        }
+        assertThat(remaining).containsOnly(0L);
+    }
+}
@@ -0,0 +1,104 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseImportResult;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.User;
+import com.splitwise.server.repo.ExpenseRepo;
+import com.splitwise.server.repo.TransactionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ExpenseImportServiceTest {
+
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private UserBalanceService userBalanceService;
+
+    @Autowired
+    private ExpenseRepo expenseRepo;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private TestData testData;
+
+    private Group group;
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        TestData.GroupWithMembers fixture = testData.groupWithMembers("import", 3);
+        group = fixture.group();
+        members = fixture.members();
+    }
+
+    @Test
+    void importsCsvAcrossChunksAndReportsBadRows() throws Exception {
+        StringBuilder csv = new StringBuilder("groupId,payer,amount,description,date,sharedWith,settled\n");
+        int good = ExpenseImportService.CHUNK_SIZE * 2 + 10;
+        for (int i = 0; i < good; i++) {
+            csv.append(group.getId()).append(",import0@example.com,30.00,\"dinner, drinks\",2024-03-01,")
+                    .append("import1@example.com;import2@example.com,\n");
+        }
+        csv.append(group.getId()).append(",nobody@example.com,10.00,taxi,,import1@example.com,\n");
+        csv.append(group.getId()).append(",import0@example.com,abc,taxi,,import1@example.com,\n");
+        // Too large for the ledger; rejected on its own line rather than failing the whole chunk
+        csv.append(group.getId()).append(",import0@example.com,1e20,yacht,,import1@example.com,\n");
+        csv.append(group.getId()).append(",import1@example.com,12.00,old,2023-01-01T10:00:00,import2@example.com,true\n");
+
+        ExpenseImportResult result = expenseImportService.importCsv(stream(csv.toString()));
+
+        assertThat(result.getImported()).isEqualTo(good + 1);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(ExpenseImportResult.RowError::getLine)
+                .containsExactlyInAnyOrder((long) good + 2, (long) good + 3, (long) good + 4);
+        assertThat(result.getErrors()).extracting(ExpenseImportResult.RowError::getMessage)
+                .contains("Payer not found: nobody@example.com");
+        assertThat(expenseRepo.count()).isEqualTo(good + 1);
+
+        // The settled row is stored but leaves the running totals alone
+        assertThat(transactionRepo.findTotalOwedByUser(members.get(1).getId())).isZero();
+        assertThat(userBalanceService.getBalance(members.get(0).getId()).getAmountLent())
+                .isEqualTo(Money.of(new BigDecimal("20.00").multiply(BigDecimal.valueOf(good))));
+        assertThat(userBalanceService.findDrift()).isEmpty();
+    }
+
+    @Test
+    void importsNdjsonAndSkipsMalformedLines() throws Exception {
+        String ndjson = """
+                {"groupId":%d,"payer":"import0@example.com","amount":9.00,"description":"lunch","sharedWith":["import1@example.com","import2@example.com"]}
+                {"groupId":%d,"payer":"import0@example.com",
+                {"groupId":%d,"payer":"import0@example.com","amount":5.00,"description":"solo","sharedWith":["import0@example.com"]}
+                """.formatted(group.getId(), group.getId(), group.getId());
+
+        ExpenseImportResult result = expenseImportService.importNdjson(stream(ndjson));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ExpenseImportResult.RowError::getLine).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(result.getErrors()).extracting(ExpenseImportResult.RowError::getMessage)
+                .contains("Cannot split expense among 0 users");
+        assertThat(userBalanceService.getBalance(members.get(2).getId()).getAmountOwed()).isEqualTo(Money.of(new BigDecimal("3.00")));
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class ExpenseServiceBatchTest {
+
+    private static final int GROUP_SIZE = 500;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestData testData;
+
+    private Group group;
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        TestData.GroupWithMembers fixture = testData.groupWithMembers("batch", GROUP_SIZE);
+        group = fixture.group();
+        members = fixture.members();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void statementCountGrowsWithBatchesNotParticipants() {
+        long small = statementsForExpenseSharedWith(50);
+        long large = statementsForExpenseSharedWith(GROUP_SIZE);
+
+        assertThat(large).as("statements for 50 members: %d, for %d members: %d", small, GROUP_SIZE, large)
+                .isLessThan(GROUP_SIZE / 5);
+    }
+
+    @Test
+    void unevenShareSplitAddsUpAndStaysBatched() {
+        Map<Long, BigDecimal> splits = new HashMap<>();
+        long[] weights = new long[GROUP_SIZE];
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            weights[i] = 1 + i % 3;
+            splits.put(members.get(i).getId(), BigDecimal.valueOf(weights[i]));
+        }
+        ExpenseRequestDTO request = new ExpenseRequestDTO(
+                new BigDecimal("1000.00"), group.getId(), members.get(0).getId(), Set.of(), "offsite");
+        request.setSplitType(ExpenseRequestDTO.SplitType.SHARES);
+        request.setSplits(splits);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        expenseService.addExpense(request);
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(GROUP_SIZE / 5);
+        BigDecimal owed = entityManager.createQuery(
+                        "SELECT SUM(CAST(t.amount AS BigDecimal)) FROM Transaction t WHERE t.group.id = :groupId", BigDecimal.class)
+                .setParameter("groupId", group.getId())
+                .getSingleResult();
+        long payerShare = SplitStrategy.SHARES.split(100_000, weights)[0];
+        assertThat(owed).isEqualByComparingTo(BigDecimal.valueOf(100_000 - payerShare, 2));
+    }
+
+    private long statementsForExpenseSharedWith(int participants) {
+        Set<Long> sharedWith = new LinkedHashSet<>();
+        for (int i = 1; i < participants; i++) {
+            sharedWith.add(members.get(i).getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        expenseService.addExpense(new ExpenseRequestDTO(
+                new BigDecimal("1000.00"), group.getId(), members.get(0).getId(), sharedWith, "offsite"));
+        entityManager.flush();
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return statements;
+    }
+}
@@ -0,0 +1,108 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.dto.TransactionUpdateDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import com.splitwise.server.repo.GroupBalanceRepo;
+import com.splitwise.server.repo.TransactionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class GroupBalanceServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private GroupBalanceService groupBalanceService;
+
+    @Autowired
+    private GroupBalanceRepo groupBalanceRepo;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private TestData testData;
+
+    private Group group;
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        TestData.GroupWithMembers fixture = testData.groupWithMembers("ledger", 4);
+        group = fixture.group();
+        members = fixture.members();
+    }
+
+    @Test
+    void ledgerTracksAggregateThroughEveryWrite() {
+        addExpense(members.get(0), "90.00", members.get(1), members.get(2));
+        addExpense(members.get(1), "40.00", members.get(0), members.get(3));
+        assertLedgerMatchesTransactions();
+
+        List<Transaction> transactions = transactionRepo.findByGroupId(group.getId());
+        transactionService.settleTransaction(transactions.get(0).getId());
+        assertLedgerMatchesTransactions();
+
+        TransactionUpdateDTO update = new TransactionUpdateDTO();
+        update.setAmount(new BigDecimal("12.50"));
+        update.setDescription("edited");
+        update.setPayerId(members.get(3).getId());
+        update.setPayeeId(members.get(2).getId());
+        transactionService.updateTransaction(transactions.get(1).getId(), update);
+        assertLedgerMatchesTransactions();
+
+        transactionService.removeTransaction(transactions.get(2).getId());
+        assertLedgerMatchesTransactions();
+
+        Map<Long, BigDecimal> beforeRebuild = ledger();
+        groupBalanceService.rebuild();
+        assertThat(ledger()).isEqualTo(beforeRebuild);
+    }
+
+    private void addExpense(User payer, String amount, User... sharedWith) {
+        Set<Long> sharedWithIds = new HashSet<>();
+        for (User user : sharedWith) {
+            sharedWithIds.add(user.getId());
+        }
+        expenseService.addExpense(new ExpenseRequestDTO(
+                new BigDecimal(amount), group.getId(), payer.getId(), sharedWithIds, "dinner"));
+    }
+
+    private void assertLedgerMatchesTransactions() {
+        assertThat(ledger()).isEqualTo(toMap(transactionRepo.getTotalOwedPerUser(group.getId())));
+    }
+
+    private Map<Long, BigDecimal> ledger() {
+        return toMap(groupBalanceRepo.getTotalOwedPerUser(group.getId()));
+    }
+
+    private static Map<Long, BigDecimal> toMap(List<Object[]> rows) {
+        Map<Long, BigDecimal> result = new TreeMap<>();
+        for (Object[] row : rows) {
+            result.put(((Number) row[0]).longValue(), ((BigDecimal) row[2]).stripTrailingZeros());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.dto.GroupChangedEvent;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import com.splitwise.server.repo.TransactionRepo;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Subscribes over HTTP, as a browser EventSource would, with open-session-in-view on as
+ * in production so the test also shows an open stream holds no pooled connection.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-events;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE",
+        "spring.jpa.open-in-view=true"
+})
+class GroupEventServiceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private GroupEventService groupEventService;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Test
+    void pushesCommittedChangesOnly() throws Exception {
+        TestData.GroupWithMembers fixture = testData.registeredGroupWithMembers("events", 2);
+        Group group = fixture.group();
+        List<User> members = fixture.members();
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"events0@example.com\",\"password\":\"" + TestData.PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String cookie = login.headers().firstValue("Set-Cookie").orElseThrow();
+
+        HttpResponse<Stream<String>> stream = client.send(HttpRequest.newBuilder(uri("/api/groups/" + group.getId() + "/events"))
+                .header("Cookie", cookie.substring(0, cookie.indexOf(';')))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofLines());
+        assertThat(stream.statusCode()).isEqualTo(200);
+        assertThat(stream.headers().firstValue("Content-Type")).hasValueSatisfying(
+                type -> assertThat(type).startsWith("text/event-stream"));
+
+        BlockingQueue<String> data = new LinkedBlockingQueue<>();
+        Thread reader = Thread.ofPlatform().daemon().start(() -> stream.body()
+                .filter(line -> line.startsWith("data:"))
+                .forEach(data::add));
+        try {
+            assertThat(groupEventService.getSubscriberCount()).isEqualTo(1);
+            assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+
+            // Rolled back: must never reach the stream
+            transactionTemplate.executeWithoutResult(status -> {
+                eventPublisher.publishEvent(new GroupChangedEvent(group.getId(), GroupChangedEvent.Change.EXPENSE_ADDED));
+                status.setRollbackOnly();
+            });
+
+            expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("30.00"), group.getId(),
+                    members.get(0).getId(), Set.of(members.get(1).getId()), "lunch"));
+            assertThat(data.poll(5, TimeUnit.SECONDS))
+                    .isEqualTo("data:{\"groupId\":" + group.getId() + ",\"change\":\"EXPENSE_ADDED\"}");
+
+            Transaction transaction = transactionRepo.findAll().stream()
+                    .filter(t -> t.getGroup().getId().equals(group.getId()))
+                    .findFirst().orElseThrow();
+            transactionService.settleTransaction(transaction.getId());
+            assertThat(data.poll(5, TimeUnit.SECONDS)).contains("\"change\":\"TRANSACTION_SETTLED\"");
+            assertThat(data).isEmpty();
+        } finally {
+            reader.interrupt();
+            stream.body().close();
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
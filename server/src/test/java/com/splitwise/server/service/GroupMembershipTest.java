@@ -0,0 +1,90 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class GroupMembershipTest {
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestData testData;
+
+    private User owner;
+    private User guest;
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        owner = testData.user("owner@membership.test");
+        guest = testData.user("guest@membership.test");
+        group = groupService.addGroup(new Group(null, "membership-test", null, null), owner);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void repeatJoinsAndLeavesCostOneStatementEach() throws Exception {
+        groupService.joinGroup(guest.getId(), group.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThatThrownBy(() -> groupService.joinGroup(guest.getId(), group.getId()))
+                .hasMessage("User is already a member of this group");
+        groupService.leaveGroup(guest.getId(), group.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        assertThatThrownBy(() -> groupService.leaveGroup(guest.getId(), group.getId()))
+                .hasMessage("User is not a member of this group");
+    }
+
+    @Test
+    void membershipWrittenOutsideTheServiceStillBlocksADuplicateJoin() {
+        jdbcTemplate.update("INSERT INTO user_group (user_id, group_id) VALUES (?, ?)", guest.getId(), group.getId());
+
+        assertThatThrownBy(() -> groupService.joinGroup(guest.getId(), group.getId()))
+                .hasMessage("User is already a member of this group");
+    }
+
+    @Test
+    void filtersOutExistingMembers() {
+        groupService.addUsersToGroup(group.getId(), List.of(owner.getId(), guest.getId()));
+
+        assertThat(groupService.getGroupsUserNotIn(guest.getId())).extracting(Group::getId)
+                .doesNotContain(group.getId());
+        assertThat(userService.getUsersNotInGroup(group.getId())).extracting(User::getId)
+                .doesNotContain(owner.getId(), guest.getId());
+    }
+
+}
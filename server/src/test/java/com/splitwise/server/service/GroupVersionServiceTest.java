@@ -0,0 +1,127 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.dto.GroupChangedEvent;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes commit for real here, so the test shares GroupEventServiceTest's context and
+ * database rather than the default one the rolled-back tests use.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-events;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,USER,VALUE",
+        "spring.jpa.open-in-view=true"
+})
+class GroupVersionServiceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void committedWritesChangeTheETagAndUnchangedReadsGet304() throws Exception {
+        // The third user joins later in the test
+        List<User> members = testData.registeredUsers("versions", 3);
+        Group group = testData.group("versions-group", members.subList(0, 2));
+        String cookie = login();
+
+        HttpResponse<String> first = get("/api/groups/" + group.getId(), cookie, null);
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(first.headers().firstValue("Cache-Control")).hasValue("no-cache, private");
+
+        HttpResponse<String> unchanged = get("/api/groups/" + group.getId(), cookie, eTag);
+        assertThat(unchanged.statusCode()).isEqualTo(304);
+        assertThat(unchanged.body()).isEmpty();
+        // One tag covers JSON, Smile and CBOR, so caches must keep the encodings apart
+        assertThat(varyHeaders(first)).contains("accept");
+        assertThat(varyHeaders(unchanged)).contains("accept");
+
+        // Rolled back: the version stays put
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new GroupChangedEvent(group.getId(), GroupChangedEvent.Change.EXPENSE_ADDED));
+            status.setRollbackOnly();
+        });
+        assertThat(get("/api/groups/" + group.getId(), cookie, eTag).statusCode()).isEqualTo(304);
+
+        expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("20.00"), group.getId(),
+                members.get(0).getId(), Set.of(members.get(1).getId()), "coffee"));
+        HttpResponse<String> afterExpense = get("/api/groups/" + group.getId(), cookie, eTag);
+        String expenseETag = afterExpense.headers().firstValue("ETag").orElseThrow();
+        assertThat(afterExpense.statusCode()).isEqualTo(200);
+        assertThat(expenseETag).isNotEqualTo(eTag);
+
+        String transactions = "/api/transactions/groups/" + group.getId();
+        assertThat(get(transactions, cookie, expenseETag).statusCode()).isEqualTo(304);
+
+        groupService.joinGroup(members.get(2).getId(), group.getId());
+        HttpResponse<String> afterJoin = get(transactions, cookie, expenseETag);
+        assertThat(afterJoin.statusCode()).isEqualTo(200);
+        assertThat(afterJoin.headers().firstValue("ETag")).isPresent().get().isNotEqualTo(expenseETag);
+    }
+
+    private static List<String> varyHeaders(HttpResponse<String> response) {
+        return response.headers().allValues("Vary").stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private String login() throws Exception {
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"versions0@example.com\",\"password\":\"" + TestData.PASSWORD + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        String cookie = login.headers().firstValue("Set-Cookie").orElseThrow();
+        return cookie.substring(0, cookie.indexOf(';'));
+    }
+
+    private HttpResponse<String> get(String path, String cookie, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).header("Cookie", cookie).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
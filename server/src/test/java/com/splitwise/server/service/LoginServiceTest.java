@@ -0,0 +1,57 @@
+package com.splitwise.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginServiceTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsImmediatelyWhenLoginQueueIsFull() throws Exception {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+
+        CountDownLatch release = new CountDownLatch(1);
+        AuthenticationManager blocking = token -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return token;
+        };
+        LoginService loginService = new LoginService(blocking, executor, meterRegistry);
+
+        CompletableFuture<Authentication> running = loginService.authenticate("a@example.com", "pw");
+        CompletableFuture<Authentication> queued = loginService.authenticate("b@example.com", "pw");
+
+        assertThatThrownBy(() -> loginService.authenticate("c@example.com", "pw"))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("auth.login.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS).getName()).isEqualTo("a@example.com");
+        assertThat(queued.get(5, TimeUnit.SECONDS).getName()).isEqualTo("b@example.com");
+    }
+}
@@ -0,0 +1,70 @@
+package com.splitwise.server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SplitStrategyTest {
+
+    @Test
+    void equalSplitHandsLeftoverPaiseToTheFirstParticipants() {
+        // 100.00 three ways used to round to 33.33 each and lose a paisa
+        assertThat(SplitStrategy.EQUAL.split(10_000, new long[3])).containsExactly(3334, 3333, 3333);
+        assertThat(SplitStrategy.EQUAL.split(2, new long[3])).containsExactly(1, 1, 0);
+    }
+
+    @Test
+    void percentageSplitGivesLeftoverToLargestRemainder() {
+        long[] basisPoints = SplitStrategy.PERCENTAGE.toUnits(decimals("33.33", "33.33", "33.34"));
+
+        assertThat(SplitStrategy.PERCENTAGE.split(1_000, basisPoints)).containsExactly(333, 333, 334);
+        assertThatThrownBy(() -> SplitStrategy.PERCENTAGE.split(1_000, new long[]{5_000, 4_999}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitStrategy.PERCENTAGE.toUnits(decimals("33.333")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void sharesSplitByWeightAndSkipZeroWeights() {
+        assertThat(SplitStrategy.SHARES.split(600, new long[]{1, 2, 3})).containsExactly(100, 200, 300);
+        assertThat(SplitStrategy.SHARES.split(100, new long[]{1, 0, 2})).containsExactly(33, 0, 67);
+        assertThatThrownBy(() -> SplitStrategy.SHARES.split(100, new long[]{0, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitStrategy.SHARES.toUnits(decimals("1.5")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void exactSplitMustAddUpToTheTotal() {
+        long[] amounts = SplitStrategy.EXACT.toUnits(decimals("12.50", "7.50"));
+
+        assertThat(SplitStrategy.EXACT.split(2_000, amounts)).containsExactly(1250, 750);
+        assertThatThrownBy(() -> SplitStrategy.EXACT.split(2_001, amounts))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SplitStrategy.EXACT.toUnits(decimals("-1")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void largeUnevenSplitsAlwaysAddUpAndAreStable() {
+        long[] weights = new long[1_000];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 1 + (i * 7919L) % 13;
+        }
+
+        long[] shares = SplitStrategy.SHARES.split(123_456_789, weights);
+
+        assertThat(Arrays.stream(shares).sum()).isEqualTo(123_456_789);
+        assertThat(SplitStrategy.SHARES.split(123_456_789, weights)).isEqualTo(shares);
+        assertThatThrownBy(() -> SplitStrategy.SHARES.split(Long.MAX_VALUE, weights))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static BigDecimal[] decimals(String... values) {
+        return Arrays.stream(values).map(BigDecimal::new).toArray(BigDecimal[]::new);
+    }
+}
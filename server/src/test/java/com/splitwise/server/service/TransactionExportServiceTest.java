@@ -0,0 +1,106 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import com.splitwise.server.repo.TransactionRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class TransactionExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestData testData;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        users = testData.users("export", 3);
+        // Alternate sides so the export has to interleave the paid and owed cursors
+        for (int day = 0; day < 6; day++) {
+            User payer = day % 2 == 0 ? users.get(0) : users.get(1 + day % 3 % 2);
+            User payee = payer == users.get(0) ? users.get(1) : users.get(0);
+            addTransaction(payer, payee, day);
+        }
+        addTransaction(users.get(1), users.get(2), 10);
+    }
+
+    @Test
+    void exportsCsvNewestFirstWithHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = transactionExportService.exportUserTransactions(
+                users.get(0).getId(), TransactionExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(6);
+        assertThat(lines).hasSize(7);
+        assertThat(lines[0]).isEqualTo("id,date,type,groupId,groupName,payerId,payerName,payeeId,payeeName,amount,description,settled");
+        assertThat(lines[1]).contains("\"day 5, exported\"", "2024-01-06T12:00:00");
+        assertThat(lines[6]).contains("\"day 0, exported\"");
+    }
+
+    @Test
+    void exportsNdjsonOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transactionExportService.exportUserTransactions(users.get(0).getId(), TransactionExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(6);
+        List<String> descriptions = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            descriptions.add(row.get("description").asText());
+        }
+        assertThat(descriptions).containsExactly("day 5, exported", "day 4, exported", "day 3, exported",
+                "day 2, exported", "day 1, exported", "day 0, exported");
+    }
+
+    @Test
+    void rejectsUnknownFormatsAndUsers() {
+        assertThatThrownBy(() -> TransactionExportService.Format.from("xml"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transactionExportService.requireUser(-1L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void addTransaction(User payer, User payee, int day) {
+        Transaction transaction = new Transaction();
+        transaction.setPayer(payer);
+        transaction.setPayee(payee);
+        transaction.setAmount(Money.of(new BigDecimal("10.00")));
+        transaction.setDate(START.plusDays(day));
+        transaction.setDescription("day " + day + ", exported");
+        transaction.setType(Transaction.TransactionType.FRIEND);
+        transactionRepo.save(transaction);
+    }
+}
@@ -0,0 +1,142 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.FriendExpenseRequest;
+import com.splitwise.server.dto.TransactionDTO;
+import com.splitwise.server.dto.TransactionPageDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import com.splitwise.server.repo.TransactionRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TransactionQueryCountTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestData testData;
+
+    private Group group;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        TestData.GroupWithMembers fixture = testData.groupWithMembers("query", 10);
+        group = fixture.group();
+        users = fixture.members();
+    }
+
+    @Test
+    void listEndpointsRunFixedQueriesRegardlessOfRowCount() {
+        addRows(2);
+        long groupSmall = statementsFor(() -> transactionService.getGroupTransactions(group.getId(), null, TransactionService.MAX_PAGE_SIZE));
+        long userSmall = statementsFor(() -> transactionService.getUserTransactions(users.get(0).getId(), null, TransactionService.MAX_PAGE_SIZE));
+        long friendSmall = statementsFor(() -> transactionService.getFriendTransactions(users.get(0).getId(), users.get(1).getId()));
+
+        addRows(40);
+        long groupLarge = statementsFor(() -> transactionService.getGroupTransactions(group.getId(), null, TransactionService.MAX_PAGE_SIZE));
+        long userLarge = statementsFor(() -> transactionService.getUserTransactions(users.get(0).getId(), null, TransactionService.MAX_PAGE_SIZE));
+        long friendLarge = statementsFor(() -> transactionService.getFriendTransactions(users.get(0).getId(), users.get(1).getId()));
+
+        assertThat(groupLarge).isEqualTo(groupSmall).isEqualTo(1);
+        assertThat(userLarge).isEqualTo(userSmall).isEqualTo(2);
+        assertThat(friendLarge).isEqualTo(friendSmall);
+        assertThat(transactionService.getGroupTransactions(group.getId(), null, TransactionService.MAX_PAGE_SIZE).getTransactions()).hasSize(84);
+        assertThat(transactionService.getFriendTransactions(users.get(1).getId(), users.get(0).getId())).hasSize(42);
+    }
+
+    @Test
+    void pagesWalkWholeFeedInOrderWithoutGapsOrDuplicates() {
+        addRows(15);
+        List<TransactionDTO> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDTO page = transactionService.getUserTransactions(users.get(1).getId(), cursor, 4);
+            assertThat(page.getTransactions()).hasSizeLessThanOrEqualTo(4);
+            all.addAll(page.getTransactions());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // user 1 is in the pairs for i = 0, 1, 10, 11 (two rows each) plus all 15 friend rows
+        assertThat(all).extracting(TransactionDTO::getId).doesNotHaveDuplicates().hasSize(23);
+        assertThat(pages).isEqualTo(6);
+        for (int i = 1; i < all.size(); i++) {
+            TransactionDTO newer = all.get(i - 1);
+            TransactionDTO older = all.get(i);
+            assertThat(newer.getDate().isAfter(older.getDate())
+                    || (newer.getDate().isEqual(older.getDate()) && newer.getId() > older.getId())).isTrue();
+        }
+    }
+
+    private void addRows(int count) {
+        for (int i = 0; i < count; i++) {
+            User payer = users.get(i % users.size());
+            User payee = users.get((i + 1) % users.size());
+
+            Transaction transaction = new Transaction();
+            transaction.setPayer(payer);
+            transaction.setPayee(payee);
+            transaction.setAmount(Money.of(new BigDecimal("10.00")));
+            transaction.setGroup(group);
+            transaction.setDescription("row " + i);
+            transaction.setType(Transaction.TransactionType.GROUP);
+            transactionRepo.save(transaction);
+            transactionRepo.save(copyOf(transaction));
+
+            FriendExpenseRequest request = new FriendExpenseRequest();
+            request.setAmount(new BigDecimal("5.00"));
+            request.setDescription("friend row " + i);
+            transactionService.addFriendExpense(users.get(0).getId(), users.get(1).getId(), request);
+        }
+        entityManager.flush();
+    }
+
+    private Transaction copyOf(Transaction transaction) {
+        Transaction copy = new Transaction();
+        copy.setPayer(transaction.getPayee());
+        copy.setPayee(transaction.getPayer());
+        copy.setAmount(transaction.getAmount());
+        copy.setGroup(transaction.getGroup());
+        copy.setDescription(transaction.getDescription());
+        copy.setType(transaction.getType());
+        return copy;
+    }
+
+    private long statementsFor(Runnable call) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
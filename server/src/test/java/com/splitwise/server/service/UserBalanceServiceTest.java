@@ -0,0 +1,123 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.TestData;
+import com.splitwise.server.dto.ExpenseRequestDTO;
+import com.splitwise.server.dto.FriendExpenseRequest;
+import com.splitwise.server.dto.TransactionUpdateDTO;
+import com.splitwise.server.dto.UserSummaryDTO;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.Money;
+import com.splitwise.server.model.Transaction;
+import com.splitwise.server.model.User;
+import com.splitwise.server.model.UserBalance;
+import com.splitwise.server.repo.TransactionRepo;
+import com.splitwise.server.repo.UserBalanceRepo;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class UserBalanceServiceTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private SettlePlanService settlePlanService;
+
+    @Autowired
+    private UserBalanceService userBalanceService;
+
+    @Autowired
+    private UserBalanceRepo userBalanceRepo;
+
+    @Autowired
+    private TransactionRepo transactionRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Group group;
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        TestData.GroupWithMembers fixture = testData.groupWithMembers("totals", 4);
+        group = fixture.group();
+        members = fixture.members();
+    }
+
+    @Test
+    void totalsTrackEveryWriteAndServeTheSummary() throws Exception {
+        expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("90.00"), group.getId(),
+                members.get(0).getId(), Set.of(members.get(1).getId(), members.get(2).getId()), "dinner"));
+        FriendExpenseRequest friendExpense = new FriendExpenseRequest();
+        friendExpense.setAmount(new BigDecimal("25.00"));
+        friendExpense.setDescription("taxi");
+        transactionService.addFriendExpense(members.get(1).getId(), members.get(3).getId(), friendExpense);
+        assertNoDrift();
+
+        List<Transaction> transactions = transactionRepo.findByGroupId(group.getId());
+        transactionService.settleTransaction(transactions.get(0).getId());
+        assertNoDrift();
+
+        TransactionUpdateDTO update = new TransactionUpdateDTO();
+        update.setAmount(new BigDecimal("12.50"));
+        update.setDescription("edited");
+        update.setPayerId(members.get(3).getId());
+        update.setPayeeId(members.get(2).getId());
+        transactionService.updateTransaction(transactions.get(1).getId(), update);
+        assertNoDrift();
+
+        User friend = members.get(1);
+        UserSummaryDTO summary = transactionService.getUserSummary(friend.getId());
+        assertThat(summary.getTotalOwes()).isEqualByComparingTo(transactionRepo.findTotalOwedByUser(friend.getId()));
+        assertThat(summary.getTotalOwedTo()).isEqualByComparingTo(transactionRepo.findTotalOwedToUser(friend.getId()));
+
+        settlePlanService.applySettlePlan(group.getId());
+        assertNoDrift();
+
+        transactionService.removeTransaction(transactionRepo.findByUserId(members.get(3).getId()).get(0).getId());
+        assertNoDrift();
+    }
+
+    @Test
+    void driftCheckReportsRowsThatDisagreeUntilRebuilt() {
+        expenseService.addExpense(new ExpenseRequestDTO(new BigDecimal("30.00"), group.getId(),
+                members.get(0).getId(), Set.of(members.get(1).getId()), "lunch"));
+        assertNoDrift();
+
+        UserBalance balance = userBalanceRepo.findById(members.get(1).getId()).orElseThrow();
+        balance.setAmountOwed(balance.getAmountOwed().plus(Money.of(BigDecimal.ONE)));
+        entityManager.flush();
+
+        List<Object[]> drift = userBalanceService.findDrift();
+        assertThat(drift).hasSize(1);
+        assertThat(((Number) drift.get(0)[0]).longValue()).isEqualTo(members.get(1).getId());
+        assertThat((BigDecimal) drift.get(0)[1]).isEqualByComparingTo("-1");
+
+        userBalanceService.rebuild();
+        entityManager.clear();
+        assertNoDrift();
+    }
+
+    private void assertNoDrift() {
+        assertThat(userBalanceService.findDrift()).isEmpty();
+    }
+}
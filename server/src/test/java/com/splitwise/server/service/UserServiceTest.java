@@ -0,0 +1,103 @@
+package com.splitwise.server.service;
+
+import com.splitwise.server.config.CacheConfig;
+import com.splitwise.server.model.Group;
+import com.splitwise.server.model.User;
+import com.splitwise.server.model.UserGroup;
+import com.splitwise.server.repo.GroupRepo;
+import com.splitwise.server.repo.UserGroupRepo;
+import com.splitwise.server.repo.UserRepo;
+import com.splitwise.server.security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private GroupRepo groupRepo;
+
+    @Autowired
+    private UserGroupRepo userGroupRepo;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void loadUserByUsernameReadsOneRowRegardlessOfMemberships() {
+        User user = new User();
+        user.setEmail("principal@example.com");
+        user.setName("Principal User");
+        user.setPassword("hash");
+        userRepo.save(user);
+        for (int i = 0; i < 20; i++) {
+            Group group = groupRepo.save(new Group(null, "principal-group-" + i, null, null));
+            userGroupRepo.save(new UserGroup(null, user, group));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        AuthenticatedUser principal = userService.loadUserByUsername("principal@example.com");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(principal.getId()).isEqualTo(user.getId());
+        assertThat(principal.getUsername()).isEqualTo("principal@example.com");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void repeatedAuthenticationIsServedFromCacheUntilEvicted() {
+        User user = new User();
+        user.setEmail("cached@example.com");
+        user.setName("Cached User");
+        user.setPassword("Sup3r$ecret");
+        userService.registerUser(user);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        authenticate("cached@example.com", "Sup3r$ecret");
+        statistics.clear();
+        authenticate("cached@example.com", "Sup3r$ecret");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.PRINCIPALS).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+
+        userService.evictCachedPrincipal("cached@example.com");
+        authenticate("cached@example.com", "Sup3r$ecret");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void authenticate(String email, String password) {
+        assertThat(authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, password))
+                .isAuthenticated()).isTrue();
+    }
+}